@@ -3,13 +3,16 @@ package com.devsuperior.dscommerce.controllers;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.CategorySummaryDTO;
 import com.devsuperior.dscommerce.services.CategoryService;
+import com.devsuperior.dscommerce.services.cache.VersionStamp;
 
 @RestController
 @RequestMapping(value = "/categories")
@@ -19,8 +22,12 @@ public class CategoryController {
     private CategoryService service;
 
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> findAll() {
-        List<CategoryDTO> list = service.findAll();
-        return ResponseEntity.ok(list);
+    public ResponseEntity<List<CategorySummaryDTO>> findAll(WebRequest request) {
+        VersionStamp version = service.version();
+        if (request.checkNotModified(version.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        List<CategorySummaryDTO> list = service.findAll();
+        return ResponseEntity.ok().eTag(version.getEtag()).body(list);
     }
 }
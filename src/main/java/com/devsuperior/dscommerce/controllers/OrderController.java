@@ -1,6 +1,8 @@
 package com.devsuperior.dscommerce.controllers;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -9,12 +11,19 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
 import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderSummaryDTO;
+import com.devsuperior.dscommerce.dto.OrderTicketDTO;
+import com.devsuperior.dscommerce.services.OrderIngestionService;
 import com.devsuperior.dscommerce.services.OrderService;
+import com.devsuperior.dscommerce.services.cache.IdempotencyStore;
 
 import jakarta.validation.Valid;
 
@@ -25,6 +34,31 @@ public class OrderController {
     @Autowired
     private OrderService service;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private OrderIngestionService ingestionService;
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
+    @GetMapping(value = "/me")
+    public ResponseEntity<CursorPageDTO<OrderSummaryDTO>> findMine(
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        CursorPageDTO<OrderSummaryDTO> dto = service.findMine(after, size);
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<OrderSummaryDTO>> findSummaries(
+            @RequestParam(name = "clientId", required = false) Long clientId,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        CursorPageDTO<OrderSummaryDTO> dto = service.findSummaries(clientId, after, size);
+        return ResponseEntity.ok(dto);
+    }
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
     @GetMapping(value = "/{id}")
     public ResponseEntity<OrderDTO> findById(@PathVariable Long id) {
@@ -32,12 +66,50 @@ public class OrderController {
         return ResponseEntity.ok(dto);
     }
     
+    // Com "Prefer: respond-async" o pedido é enfileirado e gravado em grupo, com resposta 202
     @PreAuthorize("hasRole('ROLE_CLIENT')")
     @PostMapping
-    public ResponseEntity<OrderDTO> insert(@Valid @RequestBody OrderDTO dto) {
-        dto = service.insert(dto);
+    public ResponseEntity<?> insert(@Valid @RequestBody OrderDTO dto,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(name = "Prefer", required = false) String prefer) {
+        if (prefersAsync(prefer)) {
+            OrderTicketDTO ticket = (idempotencyKey == null) ? ingestionService.submit(dto)
+                    : idempotencyStore.execute(idempotencyKey, fingerprint(dto, "async"), () -> ingestionService.submit(dto));
+            URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/requests/{id}")
+                    .buildAndExpand(ticket.getId()).toUri();
+            return ResponseEntity.accepted().location(uri).header("Preference-Applied", "respond-async").body(ticket);
+        }
+        OrderDTO result = (idempotencyKey == null) ? service.insert(dto)
+                : idempotencyStore.execute(idempotencyKey, fingerprint(dto, "sync"), () -> service.insert(dto));
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
-                .buildAndExpand(dto.getId()).toUri();
-        return ResponseEntity.created(uri).body(dto);
-    } 
+                .buildAndExpand(result.getId()).toUri();
+        return ResponseEntity.created(uri).body(result);
+    }
+
+    @PreAuthorize("hasRole('ROLE_CLIENT')")
+    @GetMapping(value = "/requests/{id}")
+    public ResponseEntity<OrderTicketDTO> findRequest(@PathVariable String id) {
+        OrderTicketDTO ticket = ingestionService.status(id);
+        return ResponseEntity.ok(ticket);
+    }
+
+    // Lista de preferências da RFC 7240, ex.: "return=minimal, respond-async; x=1"; vários headers chegam unidos por vírgula
+    private boolean prefersAsync(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            String token = preference.split("[;=]", 2)[0].trim();
+            if (token.equalsIgnoreCase("respond-async")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> fingerprint(OrderDTO dto, String mode) {
+        List<String> items = new ArrayList<>(dto.getItems().stream().map(x -> x.getProductId() + "x" + x.getQuantity()).sorted().toList());
+        items.add(mode);
+        return items;
+    }
 }
@@ -1,10 +1,17 @@
 package com.devsuperior.dscommerce.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,15 +20,33 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.dscommerce.dto.BulkResultDTO;
+import com.devsuperior.dscommerce.dto.CacheStatsDTO;
+import com.devsuperior.dscommerce.dto.CategoryAssignmentDTO;
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.DeleteResultDTO;
+import com.devsuperior.dscommerce.dto.ImportResultDTO;
+import com.devsuperior.dscommerce.dto.PriceAdjustmentDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.ProductSuggestionDTO;
+import com.devsuperior.dscommerce.services.ProductExportService;
+import com.devsuperior.dscommerce.services.ProductImportService;
 import com.devsuperior.dscommerce.services.ProductService;
+import com.devsuperior.dscommerce.services.cache.CatalogVersions;
+import com.devsuperior.dscommerce.services.cache.VersionStamp;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.services.exceptions.PreconditionFailedException;
+import com.devsuperior.dscommerce.util.HttpUtil;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -31,17 +56,85 @@ public class ProductController {
     @Autowired
     private ProductService service;
 
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductExportService exportService;
+
     @GetMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<ProductDTO> findById(@PathVariable Long id, WebRequest request) {
+        // O 304 sai da versão em memória, antes de carregar a entidade
+        VersionStamp version = service.version(id);
+        if (version != null && request.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         ProductDTO dto = service.findById(id);
-        return ResponseEntity.ok(dto);
+        version = service.version(dto);
+        return ResponseEntity.ok().eTag(version.getEtag()).lastModified(version.getLastModified()).body(dto);
     }
 
     @GetMapping
     public ResponseEntity<Page<ProductMinDTO>> findAll(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "categoryId", required = false) List<Long> categoryIds,
+            @RequestParam(name = "minPrice", required = false) Double minPrice,
+            @RequestParam(name = "maxPrice", required = false) Double maxPrice,
+            Pageable pageable) {
+        Page<ProductMinDTO> dto = service.findAll(name, categoryIds, minPrice, maxPrice, pageable);
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(value = "/slice")
+    public ResponseEntity<Slice<ProductMinDTO>> findSlice(
             @RequestParam(name = "name", defaultValue = "") String name,
             Pageable pageable) {
-        Page<ProductMinDTO> dto = service.findAll(name, pageable);
+        Slice<ProductMinDTO> dto = service.findSlice(name, pageable);
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(value = "/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggest(
+            @RequestParam(name = "prefix", defaultValue = "") String prefix,
+            @RequestParam(name = "limit", defaultValue = "10") Integer limit) {
+        List<ProductSuggestionDTO> list = service.suggest(prefix, limit);
+        return ResponseEntity.ok(list);
+    }
+
+    @GetMapping(value = "/cursor")
+    public ResponseEntity<CursorPageDTO<ProductMinDTO>> findAllAfter(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "sort", defaultValue = "id") String sort,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        CursorPageDTO<ProductMinDTO> dto = service.findAllAfter(name, sort, after, size);
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(value = "/export")
+    public void export(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        if (!format.equals("ndjson") && !format.equals("csv")) {
+            throw new BadRequestException("Formato não suportado: " + format);
+        }
+        boolean csv = format.equals("csv");
+        boolean gzip = HttpUtil.acceptsGzip(acceptEncoding);
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products." + format);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        exportService.export(response.getOutputStream(), csv, gzip);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/cache/stats")
+    public ResponseEntity<CacheStatsDTO> cacheStats() {
+        CacheStatsDTO dto = service.cacheStats();
         return ResponseEntity.ok(dto);
     }
 
@@ -55,12 +148,55 @@ public class ProductController {
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    @PutMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto) {
-        dto = service.update(id, dto);
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", "text/csv" })
+    public ResponseEntity<ImportResultDTO> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        ImportResultDTO dto = importService.importProducts(body, csv);
         return ResponseEntity.ok(dto);
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping(value = "/bulk/price")
+    public ResponseEntity<BulkResultDTO> adjustPrice(@Valid @RequestBody PriceAdjustmentDTO dto) {
+        BulkResultDTO result = service.adjustPrice(dto);
+        return ResponseEntity.ok(result);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping(value = "/bulk/categories")
+    public ResponseEntity<BulkResultDTO> reassignCategories(@Valid @RequestBody CategoryAssignmentDTO dto) {
+        BulkResultDTO result = service.reassignCategories(dto);
+        return ResponseEntity.ok(result);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping(value = "/{id}")
+    public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto,
+            @RequestHeader(name = "If-Match", required = false) String ifMatch) {
+        dto = service.update(id, dto, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(CatalogVersions.productEtag(id, dto.getVersion())).body(dto);
+    }
+
+    // If-Match com o ETag de GET /products/{id}; "*" só exige que o produto exista
+    private Integer expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Integer version = CatalogVersions.parseProductEtag(id, ifMatch.trim());
+        if (version == null) {
+            throw new PreconditionFailedException("If-Match não corresponde a uma versão deste produto");
+        }
+        return version;
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping
+    public ResponseEntity<DeleteResultDTO> deleteAll(@RequestParam(name = "ids") List<Long> ids) {
+        DeleteResultDTO result = service.deleteAll(ids);
+        return ResponseEntity.ok(result);
+    }
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @DeleteMapping(value = "/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
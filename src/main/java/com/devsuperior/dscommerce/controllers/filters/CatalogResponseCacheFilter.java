@@ -0,0 +1,128 @@
+package com.devsuperior.dscommerce.controllers.filters;
+
+import java.io.IOException;
+import java.util.Enumeration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.devsuperior.dscommerce.services.cache.CachedResponse;
+import com.devsuperior.dscommerce.services.cache.CatalogVersions;
+import com.devsuperior.dscommerce.services.cache.ResponseBodyCache;
+import com.devsuperior.dscommerce.util.HttpUtil;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+ * Serve as primeiras páginas de GET /products (sem filtros) e GET /categories a partir dos bytes
+ * já serializados, sem passar pelo controller nem pelo Jackson. A geração do catálogo é lida antes
+ * de executar a requisição, então uma escrita concorrente nunca fica escondida atrás de uma entrada nova.
+ */
+@Component
+public class CatalogResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ResponseBodyCache cache;
+
+    @Autowired
+    private CatalogVersions versions;
+
+    @Value("${cache.responses.max-page:3}")
+    private int maxPage;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null
+                || key(request, 0) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = key(request, versions.generation());
+        CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            write(request, response, cached);
+            return;
+        }
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        wrapper.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        wrapper.setHeader("X-Cache", "MISS");
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpStatus.OK.value()) {
+            cache.put(key, wrapper.getContentType(), wrapper.getHeader(HttpHeaders.ETAG), wrapper.getContentAsByteArray());
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, CachedResponse cached) throws IOException {
+        boolean gzip = HttpUtil.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] body = gzip ? cached.getGzipBody() : cached.getBody();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(cached.getContentType() != null ? cached.getContentType() : MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader("X-Cache", "HIT");
+        if (cached.getEtag() != null) {
+            response.setHeader(HttpHeaders.ETAG, cached.getEtag());
+        }
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.getOutputStream().write(body);
+    }
+
+    // Chave normalizada da requisição, ou null quando a resposta não deve ser guardada
+    private String key(HttpServletRequest request, long generation) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("/categories".equals(path)) {
+            return request.getQueryString() == null ? generation + ":categories" : null;
+        }
+        if (!"/products".equals(path)) {
+            return null;
+        }
+        Enumeration<String> names = request.getParameterNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            if (!name.equals("page") && !name.equals("size") && !name.equals("name")) {
+                return null;
+            }
+        }
+        String name = request.getParameter("name");
+        if (name != null && !name.isEmpty()) {
+            return null;
+        }
+        Integer page = parse(request.getParameter("page"), 0);
+        Integer size = parse(request.getParameter("size"), DEFAULT_PAGE_SIZE);
+        if (page == null || size == null || page < 0 || page >= maxPage || size < 1 || size > MAX_PAGE_SIZE) {
+            return null;
+        }
+        return generation + ":products:" + page + ":" + size;
+    }
+
+    private static Integer parse(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.valueOf(value);
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
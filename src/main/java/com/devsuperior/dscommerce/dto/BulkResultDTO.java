@@ -0,0 +1,14 @@
+package com.devsuperior.dscommerce.dto;
+
+public class BulkResultDTO {
+
+    private Integer affected;
+
+    public BulkResultDTO(Integer affected) {
+        this.affected = affected;
+    }
+
+    public Integer getAffected() {
+        return affected;
+    }
+}
@@ -0,0 +1,32 @@
+package com.devsuperior.dscommerce.dto;
+
+public class CacheStatsDTO {
+
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Long size;
+
+    public CacheStatsDTO(Long hits, Long misses, Long evictions, Long size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    public Long getHits() {
+        return hits;
+    }
+
+    public Long getMisses() {
+        return misses;
+    }
+
+    public Long getEvictions() {
+        return evictions;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+}
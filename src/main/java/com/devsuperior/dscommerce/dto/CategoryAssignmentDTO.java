@@ -0,0 +1,27 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+
+public class CategoryAssignmentDTO {
+
+    @NotEmpty(message = "Deve ter pelo menos um produto")
+    private List<Long> productIds = new ArrayList<>();
+    @NotEmpty(message = "Deve ter pelo menos uma categoria")
+    private List<Long> categoryIds = new ArrayList<>();
+
+    public CategoryAssignmentDTO(List<Long> productIds, List<Long> categoryIds) {
+        this.productIds = productIds;
+        this.categoryIds = categoryIds;
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+
+    public List<Long> getCategoryIds() {
+        return categoryIds;
+    }
+}
@@ -0,0 +1,26 @@
+package com.devsuperior.dscommerce.dto;
+
+public class CategorySummaryDTO {
+
+    private Long id;
+    private String name;
+    private Integer productCount;
+
+    public CategorySummaryDTO(Long id, String name, Integer productCount) {
+        this.id = id;
+        this.name = name;
+        this.productCount = productCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getProductCount() {
+        return productCount;
+    }
+}
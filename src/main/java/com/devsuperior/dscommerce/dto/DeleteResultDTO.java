@@ -0,0 +1,29 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DeleteResultDTO {
+
+    private Integer deleted;
+    private List<Long> notFound = new ArrayList<>();
+    private List<Long> integrityViolations = new ArrayList<>();
+
+    public DeleteResultDTO(Integer deleted, List<Long> notFound, List<Long> integrityViolations) {
+        this.deleted = deleted;
+        this.notFound = notFound;
+        this.integrityViolations = integrityViolations;
+    }
+
+    public Integer getDeleted() {
+        return deleted;
+    }
+
+    public List<Long> getNotFound() {
+        return notFound;
+    }
+
+    public List<Long> getIntegrityViolations() {
+        return integrityViolations;
+    }
+}
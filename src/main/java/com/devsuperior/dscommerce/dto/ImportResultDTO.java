@@ -0,0 +1,37 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResultDTO {
+
+    private static final int MAX_ERRORS = 1000;
+
+    private Long imported = 0L;
+    private Long failed = 0L;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    public Long getImported() {
+        return imported;
+    }
+
+    public Long getFailed() {
+        return failed;
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    // Todas as falhas são contadas, mas só as primeiras são detalhadas para manter a memória constante
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new ImportErrorDTO(line, message));
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.util.List;
 import com.devsuperior.dscommerce.entities.Order;
 import com.devsuperior.dscommerce.entities.OrderItem;
 import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.util.MoneyUtil;
 
 import jakarta.validation.constraints.NotEmpty;
 
@@ -23,6 +24,8 @@ public class OrderDTO {
 	@NotEmpty(message = "Deve ter pelo menos um item")
 	private List<OrderItemDTO> items = new ArrayList<>();
 
+	private Long totalCents;
+
 	public OrderDTO(Long id, Instant moment, OrderStatus status, ClientDTO client, PaymentDTO payment) {
 		this.id = id;
 		this.moment = moment;
@@ -37,6 +40,7 @@ public class OrderDTO {
 		this.status = entity.getStatus();
 		this.client = new ClientDTO(entity.getClient());
 		this.payment = (entity.getPayment() == null) ? null : new PaymentDTO(entity.getPayment());
+		this.totalCents = entity.getTotalCents();
 		for (OrderItem item : entity.getItems()) {
 			OrderItemDTO itemDto = new OrderItemDTO(item);
 			items.add(itemDto);
@@ -67,11 +71,15 @@ public class OrderDTO {
 		return items;
 	}
 	
+	// Pedidos gravados já trazem o total em centavos; sem ele, o total é somado dos itens
 	public Double getTotal() {
-		double sum = 0.0;
+		if (totalCents != null) {
+			return MoneyUtil.fromCents(totalCents);
+		}
+		long sum = 0;
 		for (OrderItemDTO item : items) {
-			sum += item.getSubTotal();
+			sum += MoneyUtil.toCents(item.getPrice()) * item.getQuantity();
 		}
-		return sum;
+		return MoneyUtil.fromCents(sum);
 	}
 }
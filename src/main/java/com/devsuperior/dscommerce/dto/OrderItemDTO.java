@@ -1,6 +1,7 @@
 package com.devsuperior.dscommerce.dto;
 
 import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.util.MoneyUtil;
 
 public class OrderItemDTO {
 
@@ -43,7 +44,7 @@ public class OrderItemDTO {
 	}
 
 	public Double getSubTotal() {
-		return price * quantity;
+		return MoneyUtil.fromCents(MoneyUtil.toCents(price) * quantity);
 	}
 	
 	public String getImgUrl() {
@@ -0,0 +1,49 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.time.Instant;
+
+import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.util.MoneyUtil;
+
+public class OrderSummaryDTO {
+
+    private Long id;
+    private Instant moment;
+    private OrderStatus status;
+    private Long clientId;
+    private Double total;
+    private Long itemCount;
+
+    public OrderSummaryDTO(Long id, Instant moment, OrderStatus status, Long clientId, Long totalCents, Long itemCount) {
+        this.id = id;
+        this.moment = moment;
+        this.status = status;
+        this.clientId = clientId;
+        this.total = MoneyUtil.fromCents(totalCents);
+        this.itemCount = itemCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getMoment() {
+        return moment;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public Double getTotal() {
+        return total;
+    }
+
+    public Long getItemCount() {
+        return itemCount;
+    }
+}
@@ -0,0 +1,32 @@
+package com.devsuperior.dscommerce.dto;
+
+public class OrderTicketDTO {
+
+    private String id;
+    private OrderTicketStatus status;
+    private Long orderId;
+    private String message;
+
+    public OrderTicketDTO(String id, OrderTicketStatus status, Long orderId, String message) {
+        this.id = id;
+        this.status = status;
+        this.orderId = orderId;
+        this.message = message;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public OrderTicketStatus getStatus() {
+        return status;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
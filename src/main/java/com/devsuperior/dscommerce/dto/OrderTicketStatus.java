@@ -0,0 +1,5 @@
+package com.devsuperior.dscommerce.dto;
+
+public enum OrderTicketStatus {
+    PENDING, CREATED, FAILED;
+}
@@ -0,0 +1,26 @@
+package com.devsuperior.dscommerce.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+public class PriceAdjustmentDTO {
+
+    @NotNull(message = "Campo requerido")
+    private Long categoryId;
+    @NotNull(message = "Campo requerido")
+    @DecimalMin(value = "-100", inclusive = false, message = "O percentual deve ser maior que -100")
+    private Double percent;
+
+    public PriceAdjustmentDTO(Long categoryId, Double percent) {
+        this.categoryId = categoryId;
+        this.percent = percent;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public Double getPercent() {
+        return percent;
+    }
+}
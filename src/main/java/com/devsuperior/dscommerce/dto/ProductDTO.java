@@ -25,6 +25,7 @@ public class ProductDTO {
     @Positive(message = "O preço deve ser positivo")
     private Double price;
     private String imgUrl;
+    private Integer version;
     
     @NotEmpty(message = "Deve ter pelo menos uma categoria")
     private List<CategoryDTO> categories = new ArrayList<>();
@@ -43,6 +44,7 @@ public class ProductDTO {
         description = entity.getDescription();
         price = entity.getPrice();
         imgUrl = entity.getImgUrl();
+        version = entity.getVersion();
         for (Category cat : entity.getCategories()) {
         	categories.add(new CategoryDTO(cat));
         }
@@ -68,6 +70,10 @@ public class ProductDTO {
         return imgUrl;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
 	public List<CategoryDTO> getCategories() {
 		return categories;
 	}
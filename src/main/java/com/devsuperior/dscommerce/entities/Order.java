@@ -14,13 +14,20 @@ import java.util.Set;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "tb_order_seq", allocationSize = 50)
     private Long id;
 
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant moment;
     private OrderStatus status;
 
+    @Column(name = "total_cents")
+    private Long totalCents;
+
+    @Version
+    private Integer version;
+
     @ManyToOne
     @JoinColumn(name = "client_id")
     private User client;
@@ -46,10 +53,22 @@ public class Order {
         return id;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getTotalCents() {
+        return totalCents;
+    }
+
+    public void setTotalCents(Long totalCents) {
+        this.totalCents = totalCents;
+    }
+
     public Instant getMoment() {
         return moment;
     }
@@ -1,11 +1,14 @@
 package com.devsuperior.dscommerce.entities;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 
 import java.util.Objects;
 
+import com.devsuperior.dscommerce.util.MoneyUtil;
+
 @Entity
 @Table(name = "tb_order_item")
 public class OrderItem {
@@ -14,7 +17,9 @@ public class OrderItem {
     private OrderItemPK id = new OrderItemPK();
 
     private Integer quantity;
-    private Double price;
+
+    @Column(name = "price_cents")
+    private Long priceCents;
 
     public OrderItem() {
     }
@@ -23,7 +28,7 @@ public class OrderItem {
         id.setOrder(order);
         id.setProduct(product);
         this.quantity = quantity;
-        this.price = price;
+        this.priceCents = MoneyUtil.toCents(price);
     }
 
     public Order getOrder() {
@@ -51,11 +56,19 @@ public class OrderItem {
     }
 
     public Double getPrice() {
-        return price;
+        return MoneyUtil.fromCents(priceCents);
     }
 
     public void setPrice(Double price) {
-        this.price = price;
+        this.priceCents = MoneyUtil.toCents(price);
+    }
+
+    public Long getPriceCents() {
+        return priceCents;
+    }
+
+    public Long getSubTotalCents() {
+        return priceCents * quantity;
     }
 
     @Override
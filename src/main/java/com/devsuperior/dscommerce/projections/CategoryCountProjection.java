@@ -0,0 +1,7 @@
+package com.devsuperior.dscommerce.projections;
+
+public interface CategoryCountProjection {
+
+	Long getCategoryId();
+	Long getProductCount();
+}
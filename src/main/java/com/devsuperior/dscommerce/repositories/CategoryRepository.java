@@ -1,9 +1,18 @@
 package com.devsuperior.dscommerce.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.devsuperior.dscommerce.entities.Category;
+import com.devsuperior.dscommerce.projections.CategoryCountProjection;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+    long countByIdIn(Collection<Long> ids);
+
+    @Query("SELECT c.id AS categoryId, COUNT(p) AS productCount FROM Category c JOIN c.products p GROUP BY c.id")
+    List<CategoryCountProjection> searchProductCounts();
 }
@@ -1,9 +1,33 @@
 package com.devsuperior.dscommerce.repositories;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import com.devsuperior.dscommerce.dto.OrderSummaryDTO;
 import com.devsuperior.dscommerce.entities.Order;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    // Pedido, cliente, pagamento, itens e produtos em uma única consulta
+    @Query("SELECT obj FROM Order obj " +
+            "JOIN FETCH obj.client " +
+            "LEFT JOIN FETCH obj.payment " +
+            "LEFT JOIN FETCH obj.items i " +
+            "LEFT JOIN FETCH i.id.product " +
+            "WHERE obj.id = :id")
+    Optional<Order> searchByIdWithItems(Long id);
+
+    // Total gravado em centavos no pedido e quantidade de itens contada no banco, do mais recente para o mais antigo
+    @Query("SELECT new com.devsuperior.dscommerce.dto.OrderSummaryDTO(obj.id, obj.moment, obj.status, obj.client.id, " +
+            "obj.totalCents, COUNT(i)) " +
+            "FROM Order obj LEFT JOIN obj.items i " +
+            "WHERE (:clientId IS NULL OR obj.client.id = :clientId) " +
+            "AND obj.id < :beforeId " +
+            "GROUP BY obj.id, obj.moment, obj.status, obj.client.id, obj.totalCents " +
+            "ORDER BY obj.id DESC")
+    List<OrderSummaryDTO> searchSummaries(Long clientId, Long beforeId, Pageable pageable);
 }
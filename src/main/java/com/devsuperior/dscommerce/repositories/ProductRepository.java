@@ -1,14 +1,143 @@
 package com.devsuperior.dscommerce.repositories;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
 import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.projections.ProductCategoryProjection;
+import com.devsuperior.dscommerce.projections.ProductNameProjection;
+import com.devsuperior.dscommerce.projections.ProductPriceProjection;
+import com.devsuperior.dscommerce.projections.ProductVersionProjection;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    @Query("SELECT obj FROM Product obj " +
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))",
+            countQuery = "SELECT COUNT(obj) FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
+    Page<ProductMinDTO> searchByName(String name, Pageable pageable);
+
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND obj.price BETWEEN :minPrice AND :maxPrice",
+            countQuery = "SELECT COUNT(obj) FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND obj.price BETWEEN :minPrice AND :maxPrice")
+    Page<ProductMinDTO> searchByNameAndPrice(String name, Double minPrice, Double maxPrice, Pageable pageable);
+
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND obj.price BETWEEN :minPrice AND :maxPrice " +
+            "AND obj.id IN (SELECT p.id FROM Product p JOIN p.categories c " +
+            "WHERE c.id IN :categoryIds GROUP BY p.id HAVING COUNT(c.id) = :categoryCount)",
+            countQuery = "SELECT COUNT(obj) FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND obj.price BETWEEN :minPrice AND :maxPrice " +
+            "AND obj.id IN (SELECT p.id FROM Product p JOIN p.categories c " +
+            "WHERE c.id IN :categoryIds GROUP BY p.id HAVING COUNT(c.id) = :categoryCount)")
+    Page<ProductMinDTO> searchByNameAndCategories(String name, List<Long> categoryIds, Long categoryCount,
+            Double minPrice, Double maxPrice, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
             "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
-    Page<Product> searchByName(String name, Pageable pageable);
+    Slice<ProductMinDTO> searchSliceByName(String name, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND obj.id > :lastId " +
+            "ORDER BY obj.id")
+    List<ProductMinDTO> searchByNameAfterId(String name, Long lastId, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND (obj.name > :lastName OR (obj.name = :lastName AND obj.id > :lastId)) " +
+            "ORDER BY obj.name, obj.id")
+    List<ProductMinDTO> searchByNameAfterName(String name, String lastName, Long lastId, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj WHERE obj.id IN :ids")
+    List<ProductMinDTO> searchByIds(List<Long> ids);
+
+    @Query("SELECT obj FROM Product obj LEFT JOIN FETCH obj.categories WHERE obj.id = :id")
+    Optional<Product> searchByIdWithCategories(Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT obj FROM Product obj LEFT JOIN FETCH obj.categories ORDER BY obj.id")
+    Stream<Product> streamAllWithCategories();
+
+    @Query("SELECT obj.id AS id, obj.name AS name FROM Product obj")
+    List<ProductNameProjection> searchAllNames();
+
+    @Query("SELECT obj.id AS id, obj.price AS price, obj.version AS version FROM Product obj")
+    List<ProductPriceProjection> searchAllPrices();
+
+    @Query("SELECT obj.id AS productId, c.id AS categoryId FROM Product obj JOIN obj.categories c")
+    List<ProductCategoryProjection> searchAllProductCategories();
+
+    @Query("SELECT obj.id AS id, obj.price AS price, obj.version AS version FROM Product obj JOIN obj.categories c WHERE c.id = :categoryId")
+    List<ProductPriceProjection> searchPricesByCategory(Long categoryId);
+
+    @Query("SELECT obj.id FROM Product obj WHERE obj.id IN :ids")
+    List<Long> searchExistingIds(List<Long> ids);
+
+    @Query("SELECT obj.id AS id, obj.version AS version FROM Product obj")
+    List<ProductVersionProjection> searchAllVersions();
+
+    @Query("SELECT obj.id AS id, obj.version AS version FROM Product obj WHERE obj.id IN :ids")
+    List<ProductVersionProjection> searchVersions(List<Long> ids);
+
+    @Query("SELECT DISTINCT obj.id.product.id FROM OrderItem obj WHERE obj.id.product.id IN :ids")
+    List<Long> searchReferencedIds(List<Long> ids);
+
+    // O Hibernate remove antes as linhas de tb_product_category dos produtos afetados
+    @Modifying
+    @Query("DELETE FROM Product obj WHERE obj.id IN :ids")
+    int bulkDelete(List<Long> ids);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE tb_product SET price = ROUND(price * :factor, 2), version = version + 1
+            WHERE id IN (SELECT product_id FROM tb_product_category WHERE category_id = :categoryId)
+            """)
+    int updatePriceByCategory(Long categoryId, Double factor);
+
+    @Modifying
+    @Query("UPDATE Product obj SET obj.version = obj.version + 1 WHERE obj.id IN :ids")
+    int incrementVersions(List<Long> ids);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            DELETE FROM tb_product_category WHERE product_id IN :productIds
+            """)
+    int deleteCategoriesByProductIds(List<Long> productIds);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO tb_product_category (product_id, category_id)
+            SELECT p.id, c.id FROM tb_product p CROSS JOIN tb_category c
+            WHERE p.id IN :productIds AND c.id IN :categoryIds
+            """)
+    int insertCategoriesByProductIds(List<Long> productIds, List<Long> categoryIds);
 }
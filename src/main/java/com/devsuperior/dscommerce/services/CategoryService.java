@@ -1,24 +1,86 @@
 package com.devsuperior.dscommerce.services;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.CategorySummaryDTO;
 import com.devsuperior.dscommerce.entities.Category;
+import com.devsuperior.dscommerce.projections.CategoryCountProjection;
 import com.devsuperior.dscommerce.repositories.CategoryRepository;
+import com.devsuperior.dscommerce.services.cache.CatalogVersions;
+import com.devsuperior.dscommerce.services.cache.VersionStamp;
+import com.devsuperior.dscommerce.services.index.ProductCategoryIndex;
 
+/*
+ * As categorias ficam em uma lista imutável trocada por inteiro quando algo muda,
+ * então a leitura é só a leitura de um campo volátil, sem transação, trava ou cópia.
+ * As contagens de produtos são recalculadas a partir do índice de categorias após cada escrita de produto.
+ */
 @Service
 public class CategoryService {
 
     @Autowired
     private CategoryRepository repository;
 
-    @Transactional(readOnly = true)
-    public List<CategoryDTO> findAll() {
-        List<Category> result = repository.findAll();
-        return result.stream().map(x -> new CategoryDTO(x)).toList();
+    @Autowired
+    private ProductCategoryIndex categoryIndex;
+
+    @Autowired
+    private CatalogVersions versions;
+
+    private volatile List<CategorySummaryDTO> snapshot;
+
+    public VersionStamp version() {
+        return versions.categories();
+    }
+
+    public List<CategorySummaryDTO> findAll() {
+        List<CategorySummaryDTO> result = snapshot;
+        if (result == null) {
+            load();
+            result = snapshot;
+        }
+        return result;
+    }
+
+    // Relê categorias e contagens do banco; usado na inicialização e quando as categorias mudam
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (CategoryCountProjection row : repository.searchProductCounts()) {
+            counts.put(row.getCategoryId(), row.getProductCount());
+        }
+        List<Category> categories = repository.findAll(Sort.by("id"));
+        snapshot = categories.stream()
+                .map(x -> new CategorySummaryDTO(x.getId(), x.getName(), counts.getOrDefault(x.getId(), 0L).intValue()))
+                .toList();
+        versions.touchCategories();
+    }
+
+    // Chamado após o commit de escritas em produtos; só troca a lista quando alguma contagem mudou
+    public synchronized void refreshCounts() {
+        List<CategorySummaryDTO> current = snapshot;
+        if (current == null || !categoryIndex.isReady()) {
+            return;
+        }
+        boolean changed = false;
+        CategorySummaryDTO[] next = new CategorySummaryDTO[current.size()];
+        for (int i = 0; i < next.length; i++) {
+            CategorySummaryDTO dto = current.get(i);
+            int count = categoryIndex.count(dto.getId());
+            next[i] = (count == dto.getProductCount()) ? dto : new CategorySummaryDTO(dto.getId(), dto.getName(), count);
+            changed |= next[i] != dto;
+        }
+        if (changed) {
+            snapshot = List.of(next);
+            versions.touchCategories();
+        }
     }
 }
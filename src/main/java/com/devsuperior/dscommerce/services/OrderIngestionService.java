@@ -0,0 +1,258 @@
+package com.devsuperior.dscommerce.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderTicketDTO;
+import com.devsuperior.dscommerce.dto.OrderTicketStatus;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.repositories.UserRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.services.exceptions.ForbiddenException;
+import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.services.exceptions.ServiceUnavailableException;
+import com.devsuperior.dscommerce.services.exceptions.TooManyRequestsException;
+import com.devsuperior.dscommerce.util.CustomUserUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Recebimento assíncrono de pedidos: a requisição só valida, enfileira e devolve um ticket, sem tocar no banco.
+ * Poucas threads de escrita esvaziam a fila e gravam até batch-size pedidos em uma mesma transação.
+ * Se o grupo falha, cada pedido é refeito na sua própria transação para isolar o que foi rejeitado.
+ * A fila fica em memória: no encerramento o recebimento é fechado e o que já foi aceito é gravado
+ * antes de a aplicação parar, até o limite de shutdown-timeout; só o que passar disso se perde.
+ */
+@Service
+public class OrderIngestionService {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final OrderService orderService;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomUserUtil userUtil;
+    private final BlockingQueue<PendingOrder> queue;
+    private final Cache<String, Ticket> tickets;
+    private final int writerCount;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public OrderIngestionService(
+            OrderService orderService,
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate,
+            CustomUserUtil userUtil,
+            @Value("${orders.async.capacity:1024}") int capacity,
+            @Value("${orders.async.writers:2}") int writerCount,
+            @Value("${orders.async.batch-size:50}") int batchSize,
+            @Value("${orders.async.ticket-ttl:3600}") long ticketTtlSeconds,
+            @Value("${orders.async.ticket-maximum-size:100000}") long ticketMaximumSize,
+            @Value("${orders.async.shutdown-timeout:30}") long shutdownTimeoutSeconds) {
+        this.orderService = orderService;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.userUtil = userUtil;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writerCount = writerCount;
+        this.batchSize = batchSize;
+        this.shutdownTimeout = Duration.ofSeconds(shutdownTimeoutSeconds);
+        tickets = Caffeine.newBuilder()
+                .maximumSize(ticketMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ticketTtlSeconds))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        for (int i = writers.size(); i < writerCount; i++) {
+            Thread writer = new Thread(this::drain, "order-writer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    // Fecha o recebimento, grava o que está na fila e espera os writers terminarem o grupo em curso
+    @PreDestroy
+    public void stop() {
+        running = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        while (!queue.isEmpty() && System.nanoTime() < deadline) {
+            flush();
+        }
+        List<Thread> stopping;
+        synchronized (this) {
+            stopping = new ArrayList<>(writers);
+            writers.clear();
+        }
+        try {
+            for (Thread writer : stopping) {
+                writer.join(Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 1));
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingOrder> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (PendingOrder pending : remaining) {
+            pending.ticket.failed("Pedido não gravado: aplicação encerrada");
+        }
+    }
+
+    public OrderTicketDTO submit(OrderDTO dto) {
+        if (!running) {
+            throw new ServiceUnavailableException("Recebimento de pedidos encerrado");
+        }
+        String username = userUtil.getLoggedUsername();
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), username);
+        tickets.put(ticket.id, ticket);
+        PendingOrder pending = new PendingOrder(ticket, dto);
+        if (!queue.offer(pending)) {
+            tickets.invalidate(ticket.id);
+            throw new TooManyRequestsException("Fila de pedidos cheia, tente novamente em instantes");
+        }
+        // Se o encerramento começou depois da verificação acima, o pedido pode ter ficado fora do esvaziamento final
+        if (!running && queue.remove(pending)) {
+            tickets.invalidate(ticket.id);
+            throw new ServiceUnavailableException("Recebimento de pedidos encerrado");
+        }
+        return ticket.toDTO();
+    }
+
+    // Tickets de outros usuários são tratados como inexistentes
+    public OrderTicketDTO status(String id) {
+        Ticket ticket = tickets.getIfPresent(id);
+        if (ticket == null || !ticket.username.equals(userUtil.getLoggedUsername())) {
+            throw new ResourceNotFoundException("Recurso não encontrado");
+        }
+        return ticket.toDTO();
+    }
+
+    // Sem interrupção: o writer só sai entre dois grupos, nunca no meio de uma transação
+    private void drain() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running) {
+            PendingOrder first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    // Grava de uma vez o que já está na fila, na thread atual
+    void flush() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        queue.drainTo(batch, batchSize);
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<PendingOrder> batch) {
+        try {
+            List<OrderDTO> created = transactionTemplate.execute(status -> insertAll(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).ticket.created(created.get(i).getId());
+            }
+        }
+        catch (RuntimeException e) {
+            for (PendingOrder pending : batch) {
+                try {
+                    List<OrderDTO> created = transactionTemplate.execute(status -> insertAll(List.of(pending)));
+                    pending.ticket.created(created.get(0).getId());
+                }
+                catch (RuntimeException ex) {
+                    pending.ticket.failed(failureMessage(ex));
+                }
+            }
+        }
+    }
+
+    // Só as mensagens das exceções de negócio vão para o ticket; erros de banco e afins podem expor SQL e dados
+    private static String failureMessage(RuntimeException e) {
+        if (e instanceof ResourceNotFoundException || e instanceof BadRequestException || e instanceof ForbiddenException) {
+            return e.getMessage();
+        }
+        return "Não foi possível gravar o pedido";
+    }
+
+    private List<OrderDTO> insertAll(List<PendingOrder> batch) {
+        Map<String, User> users = new HashMap<>();
+        List<User> clients = new ArrayList<>(batch.size());
+        List<OrderDTO> dtos = new ArrayList<>(batch.size());
+        for (PendingOrder pending : batch) {
+            User user = users.computeIfAbsent(pending.ticket.username, x -> userRepository.findByEmail(x).orElseThrow(
+                    () -> new ResourceNotFoundException("Usuário não encontrado")));
+            clients.add(user);
+            dtos.add(pending.dto);
+        }
+        return orderService.insertAll(clients, dtos);
+    }
+
+    private static class PendingOrder {
+
+        private final Ticket ticket;
+        private final OrderDTO dto;
+
+        PendingOrder(Ticket ticket, OrderDTO dto) {
+            this.ticket = ticket;
+            this.dto = dto;
+        }
+    }
+
+    private static class Ticket {
+
+        private final String id;
+        private final String username;
+        private volatile OrderTicketDTO state;
+
+        Ticket(String id, String username) {
+            this.id = id;
+            this.username = username;
+            state = new OrderTicketDTO(id, OrderTicketStatus.PENDING, null, null);
+        }
+
+        void created(Long orderId) {
+            state = new OrderTicketDTO(id, OrderTicketStatus.CREATED, orderId, null);
+        }
+
+        void failed(String message) {
+            state = new OrderTicketDTO(id, OrderTicketStatus.FAILED, null, message);
+        }
+
+        OrderTicketDTO toDTO() {
+            return state;
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.devsuperior.dscommerce.services;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
 import com.devsuperior.dscommerce.dto.OrderDTO;
 import com.devsuperior.dscommerce.dto.OrderItemDTO;
+import com.devsuperior.dscommerce.dto.OrderSummaryDTO;
 import com.devsuperior.dscommerce.entities.Order;
 import com.devsuperior.dscommerce.entities.OrderItem;
 import com.devsuperior.dscommerce.entities.OrderStatus;
@@ -16,7 +24,9 @@ import com.devsuperior.dscommerce.entities.User;
 import com.devsuperior.dscommerce.repositories.OrderItemRepository;
 import com.devsuperior.dscommerce.repositories.OrderRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.util.CursorUtil;
 
 @Service
 public class OrderService {
@@ -38,32 +48,86 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public OrderDTO findById(Long id) {
-        Order order = repository.findById(id).orElseThrow(
+        Order order = repository.searchByIdWithItems(id).orElseThrow(
                 () -> new ResourceNotFoundException("Recurso não encontrado"));
         authService.validateSelfOrAdmin(order.getClient().getId());
         return new OrderDTO(order);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderSummaryDTO> findMine(String after, int size) {
+        User user = userService.authenticated();
+        return findSummaries(user.getId(), after, size);
+    }
+
+    // clientId nulo lista os pedidos de todos os clientes
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderSummaryDTO> findSummaries(Long clientId, String after, int size) {
+        if (size < 1 || size > 100) {
+            throw new BadRequestException("O tamanho da página deve estar entre 1 e 100");
+        }
+        Long beforeId = (after == null || after.isBlank()) ? Long.MAX_VALUE : parseId(CursorUtil.decode(after, 1)[0]);
+        List<OrderSummaryDTO> result = repository.searchSummaries(clientId, beforeId, PageRequest.of(0, size + 1));
+        String next = null;
+        if (result.size() > size) {
+            result = result.subList(0, size);
+            next = CursorUtil.encode(result.get(size - 1).getId().toString());
+        }
+        return new CursorPageDTO<>(result, next);
+    }
+
     @Transactional
 	public OrderDTO insert(OrderDTO dto) {
-		
-    	Order order = new Order();
-    	
-    	order.setMoment(Instant.now());
-    	order.setStatus(OrderStatus.WAITING_PAYMENT);
-    	
     	User user = userService.authenticated();
-    	order.setClient(user);
-    	
-    	for (OrderItemDTO itemDto : dto.getItems()) {
-    		Product product = productRepository.getReferenceById(itemDto.getProductId());
-    		OrderItem item = new OrderItem(order, product, itemDto.getQuantity(), product.getPrice());
-    		order.getItems().add(item);
-    	}
-    	
-    	repository.save(order);
-    	orderItemRepository.saveAll(order.getItems());
-    	
-    	return new OrderDTO(order);
+    	return insertAll(List.of(user), List.of(dto)).get(0);
 	}
+
+    // Grava os pedidos na transação do chamador; os produtos de todos eles vêm de uma única consulta
+    List<OrderDTO> insertAll(List<User> clients, List<OrderDTO> dtos) {
+        Map<Long, Product> products = findProducts(dtos);
+        List<Order> orders = new ArrayList<>(dtos.size());
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            Order order = new Order();
+            order.setMoment(Instant.now());
+            order.setStatus(OrderStatus.WAITING_PAYMENT);
+            order.setClient(clients.get(i));
+            long totalCents = 0;
+            for (OrderItemDTO itemDto : dtos.get(i).getItems()) {
+                Product product = products.get(itemDto.getProductId());
+                OrderItem item = new OrderItem(order, product, itemDto.getQuantity(), product.getPrice());
+                order.getItems().add(item);
+                totalCents += item.getSubTotalCents();
+            }
+            order.setTotalCents(totalCents);
+            orders.add(order);
+            items.addAll(order.getItems());
+        }
+        repository.saveAll(orders);
+        orderItemRepository.saveAll(items);
+        return orders.stream().map(x -> new OrderDTO(x)).toList();
+    }
+
+    private Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        }
+        catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    // Carrega todos os produtos dos pedidos em uma única consulta e rejeita ids inexistentes antes de gravar
+    private Map<Long, Product> findProducts(List<OrderDTO> dtos) {
+        List<Long> ids = dtos.stream().flatMap(x -> x.getItems().stream()).map(x -> x.getProductId()).distinct().toList();
+        Map<Long, Product> result = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids.stream().filter(Objects::nonNull).toList())) {
+            result.put(product.getId(), product);
+        }
+        List<Long> missing = ids.stream().filter(id -> !result.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Produto não encontrado: " + missing);
+        }
+        return result;
+    }
 }
@@ -0,0 +1,83 @@
+package com.devsuperior.dscommerce.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.util.CsvUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/*
+ * Exportação do catálogo direto para a resposta: os produtos vêm de um cursor somente leitura
+ * e cada um é desanexado do contexto de persistência logo após ser escrito.
+ * O CSV usa as mesmas colunas aceitas pela importação.
+ */
+@Service
+public class ProductExportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("id", "name", "description", "price", "imgUrl", "categories");
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public void export(OutputStream output, boolean csv, boolean gzip) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(output, 8192) : output;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8));
+        if (csv) {
+            writer.write(CsvUtil.formatLine(CSV_COLUMNS));
+            writer.write('\n');
+        }
+        try (Stream<Product> stream = repository.streamAllWithCategories()) {
+            Iterator<Product> it = stream.iterator();
+            while (it.hasNext()) {
+                Product product = it.next();
+                writer.write(csv ? toCsv(product) : objectMapper.writeValueAsString(new ProductDTO(product)));
+                writer.write('\n');
+                entityManager.detach(product);
+            }
+        }
+        writer.flush();
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+    }
+
+    private String toCsv(Product product) {
+        String categories = product.getCategories().stream()
+                .map(x -> x.getId().toString())
+                .sorted()
+                .collect(Collectors.joining("|"));
+        String price = (product.getPrice() == null) ? "" : product.getPrice().toString();
+        return CsvUtil.formatLine(List.of(product.getId().toString(), nullToEmpty(product.getName()),
+                nullToEmpty(product.getDescription()), price, nullToEmpty(product.getImgUrl()), categories));
+    }
+
+    private String nullToEmpty(String value) {
+        return (value == null) ? "" : value;
+    }
+}
@@ -0,0 +1,238 @@
+package com.devsuperior.dscommerce.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.ImportResultDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.entities.Category;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.repositories.CategoryRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.util.CsvUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/*
+ * Importação em massa lida linha a linha: cada bloco de batch-size produtos é gravado em uma
+ * transação própria, com flush e clear ao final, para que a memória não cresça com o arquivo.
+ * Linhas inválidas são relatadas no resultado sem interromper a importação.
+ */
+@Service
+public class ProductImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "price", "imgUrl", "categories");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${import.products.batch-size:500}")
+    private int batchSize;
+
+    public ImportResultDTO importProducts(InputStream input, boolean csv) {
+        ImportResultDTO result = new ImportResultDTO();
+        Set<Long> categoryIds = categoryRepository.findAll().stream().map(x -> x.getId()).collect(Collectors.toSet());
+        Map<Long, ProductDTO> chunk = new LinkedHashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                long recordLine = lineNumber;
+                if (csv) {
+                    line = readRecord(reader, line);
+                    lineNumber += line.chars().filter(c -> c == '\n').count();
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = CsvUtil.parseLine(line).stream().map(String::trim).toList();
+                    if (!header.containsAll(CSV_COLUMNS)) {
+                        throw new BadRequestException("Cabeçalho CSV deve conter as colunas " + CSV_COLUMNS);
+                    }
+                    continue;
+                }
+                try {
+                    ProductDTO dto = csv ? fromCsv(header, line) : fromJson(line);
+                    String error = validate(dto, categoryIds);
+                    if (error != null) {
+                        result.addError(recordLine, error);
+                        continue;
+                    }
+                    chunk.put(recordLine, dto);
+                }
+                catch (BadRequestException e) {
+                    result.addError(recordLine, e.getMessage());
+                }
+                if (chunk.size() >= batchSize) {
+                    save(chunk, result);
+                    chunk.clear();
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new BadRequestException("Falha na leitura do arquivo de importação");
+        }
+        save(chunk, result);
+        return result;
+    }
+
+    // Campo entre aspas pode conter quebra de linha (RFC 4180): o registro segue nas linhas seguintes até fechar as aspas
+    private String readRecord(BufferedReader reader, String line) throws IOException {
+        boolean quoted = CsvUtil.insideQuotes(line, false);
+        if (!quoted) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        String next;
+        while (quoted && (next = reader.readLine()) != null) {
+            record.append('\n').append(next);
+            quoted = CsvUtil.insideQuotes(next, quoted);
+        }
+        return record.toString();
+    }
+
+    private void save(Map<Long, ProductDTO> chunk, ImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(chunk.values()));
+            result.addImported(chunk.size());
+        }
+        catch (DataAccessException | PersistenceException e) {
+            // Refaz o bloco linha a linha para isolar as linhas rejeitadas pelo banco
+            for (Map.Entry<Long, ProductDTO> entry : chunk.entrySet()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(entry.getValue())));
+                    result.addImported(1);
+                }
+                catch (DataAccessException | PersistenceException ex) {
+                    result.addError(entry.getKey(), "Falha ao gravar produto");
+                }
+            }
+        }
+    }
+
+    private void persist(Iterable<ProductDTO> dtos) {
+        List<Product> products = new ArrayList<>();
+        for (ProductDTO dto : dtos) {
+            Product entity = new Product(null, dto.getName(), dto.getDescription(), dto.getPrice(), dto.getImgUrl());
+            for (CategoryDTO catDto : dto.getCategories()) {
+                entity.getCategories().add(entityManager.getReference(Category.class, catDto.getId()));
+            }
+            entityManager.persist(entity);
+            products.add(entity);
+        }
+        entityManager.flush();
+        productService.indexAll(products);
+        entityManager.clear();
+    }
+
+    private String validate(ProductDTO dto, Set<Long> categoryIds) {
+        Set<ConstraintViolation<ProductDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        for (CategoryDTO catDto : dto.getCategories()) {
+            if (catDto.getId() == null || !categoryIds.contains(catDto.getId())) {
+                return "Categoria não encontrada: " + catDto.getId();
+            }
+        }
+        return null;
+    }
+
+    private ProductDTO fromJson(String line) {
+        try {
+            return objectMapper.readValue(line, ProductDTO.class);
+        }
+        catch (JsonProcessingException e) {
+            throw new BadRequestException("JSON inválido");
+        }
+    }
+
+    // Colunas: name, description, price, imgUrl, categories (ids separados por '|')
+    private ProductDTO fromCsv(List<String> header, String line) {
+        List<String> fields = CsvUtil.parseLine(line);
+        if (fields.size() != header.size()) {
+            throw new BadRequestException("Número de colunas inválido");
+        }
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            row.put(header.get(i), fields.get(i).trim());
+        }
+        ProductDTO dto = new ProductDTO(null, row.get("name"), row.get("description"),
+                parseDouble(row.get("price")), row.get("imgUrl"));
+        for (String id : row.get("categories").split("\\|")) {
+            if (!id.isBlank()) {
+                dto.getCategories().add(new CategoryDTO(parseLong(id.trim()), null));
+            }
+        }
+        return dto;
+    }
+
+    private Double parseDouble(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        }
+        catch (NumberFormatException e) {
+            throw new BadRequestException("Valor numérico inválido: " + value);
+        }
+    }
+
+    private Long parseLong(String value) {
+        try {
+            return Long.valueOf(value);
+        }
+        catch (NumberFormatException e) {
+            throw new BadRequestException("Valor numérico inválido: " + value);
+        }
+    }
+}
@@ -1,21 +1,57 @@
 package com.devsuperior.dscommerce.services;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.BulkResultDTO;
+import com.devsuperior.dscommerce.dto.CacheStatsDTO;
+import com.devsuperior.dscommerce.dto.CategoryAssignmentDTO;
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.DeleteResultDTO;
+import com.devsuperior.dscommerce.dto.PriceAdjustmentDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.ProductSuggestionDTO;
 import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.projections.ProductPriceProjection;
+import com.devsuperior.dscommerce.projections.ProductVersionProjection;
+import com.devsuperior.dscommerce.repositories.CategoryRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.cache.CatalogVersions;
+import com.devsuperior.dscommerce.services.cache.ProductCache;
+import com.devsuperior.dscommerce.services.cache.VersionStamp;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import com.devsuperior.dscommerce.services.exceptions.DatabaseException;
+import com.devsuperior.dscommerce.services.exceptions.PreconditionFailedException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.services.index.IdBitmap;
+import com.devsuperior.dscommerce.services.index.ProductCategoryIndex;
+import com.devsuperior.dscommerce.services.index.ProductIndexEntry;
+import com.devsuperior.dscommerce.services.index.ProductNameIndex;
+import com.devsuperior.dscommerce.services.index.ProductNameTrie;
+import com.devsuperior.dscommerce.services.index.ProductPriceIndex;
+import com.devsuperior.dscommerce.util.CursorUtil;
+import com.devsuperior.dscommerce.util.TransactionUtil;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -25,17 +61,170 @@ public class ProductService {
     @Autowired
     private ProductRepository repository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductNameIndex nameIndex;
+
+    @Autowired
+    private ProductCategoryIndex categoryIndex;
+
+    @Autowired
+    private ProductPriceIndex priceIndex;
+
+    @Autowired
+    private ProductNameTrie nameTrie;
+
+    @Autowired
+    private ProductCache cache;
+
+    @Autowired
+    private CatalogVersions versions;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Acerto no cache não abre transação; só a falta consulta o banco
     public ProductDTO findById(Long id) {
-        Product product = repository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Recurso não encontrado"));
-        return new ProductDTO(product);
+        ProductDTO dto = cache.get(id);
+        if (dto == null) {
+            long stamp = cache.stamp(id);
+            dto = transactionTemplate.execute(status -> new ProductDTO(repository.searchByIdWithCategories(id).orElseThrow(
+                    () -> new ResourceNotFoundException("Recurso não encontrado"))));
+            cache.put(id, dto, stamp);
+            versions.observeProduct(id, dto.getVersion());
+        }
+        return dto;
+    }
+
+    // Versão em memória para GET condicional, sem consultar o banco; null quando desconhecida
+    public VersionStamp version(Long id) {
+        return versions.product(id);
+    }
+
+    public VersionStamp version(ProductDTO dto) {
+        return versions.product(dto.getId(), dto.getVersion());
+    }
+
+    public CacheStatsDTO cacheStats() {
+        return cache.stats();
     }
 
     @Transactional(readOnly = true)
-    public Page<ProductMinDTO> findAll(String name, Pageable pageable) {
-        Page<Product> result = repository.searchByName(name, pageable);
-        return result.map(x -> new ProductMinDTO(x));
+    public Page<ProductMinDTO> findAll(String name, List<Long> categoryIds, Double minPrice, Double maxPrice, Pageable pageable) {
+        categoryIds = (categoryIds == null) ? List.of() : categoryIds.stream().distinct().toList();
+        boolean priceFilter = minPrice != null || maxPrice != null;
+        Sort.Order priceOrder = pageable.getSort().getOrderFor("price");
+        boolean sortByPrice = priceOrder != null && pageable.getSort().toList().size() == 1;
+
+        // Listagem sem nenhum filtro vai direto ao banco, que pagina com LIMIT sem montar a lista de ids
+        boolean filtered = !name.isEmpty() || !categoryIds.isEmpty() || priceFilter || sortByPrice;
+        boolean indexed = filtered && nameIndex.isReady()
+                && (categoryIds.isEmpty() || categoryIndex.isReady())
+                && ((!priceFilter && !sortByPrice) || priceIndex.isReady())
+                && (sortByPrice || nameIndex.supports(pageable.getSort()));
+        if (!indexed) {
+            Page<ProductMinDTO> result;
+            if (!categoryIds.isEmpty()) {
+                result = repository.searchByNameAndCategories(name, categoryIds, (long) categoryIds.size(),
+                        lowerPrice(minPrice), upperPrice(maxPrice), pageable);
+            }
+            else if (priceFilter) {
+                result = repository.searchByNameAndPrice(name, lowerPrice(minPrice), upperPrice(maxPrice), pageable);
+            }
+            else {
+                result = repository.searchByName(name, pageable);
+            }
+            return result;
+        }
+
+        IdBitmap filter = null;
+        if (priceFilter && !sortByPrice) {
+            filter = priceIndex.rangeBitmap(minPrice, maxPrice);
+        }
+        if (!categoryIds.isEmpty()) {
+            IdBitmap categories = categoryIndex.intersect(categoryIds);
+            filter = (filter == null) ? categories : filter.and(categories);
+        }
+        List<Long> ids;
+        if (sortByPrice) {
+            ids = priceIndex.range(minPrice, maxPrice, priceOrder.isAscending());
+            if (!name.isEmpty()) {
+                IdBitmap names = IdBitmap.of(nameIndex.search(name, Sort.unsorted()));
+                filter = (filter == null) ? names : filter.and(names);
+            }
+        }
+        else if (name.isEmpty()) {
+            // Sem termo, a lista parte dos ids que passaram pelos filtros de categoria e preço
+            ids = nameIndex.sorted(filter.toList(), pageable.getSort());
+            filter = null;
+        }
+        else {
+            ids = nameIndex.search(name, pageable.getSort());
+        }
+        if (filter != null) {
+            IdBitmap finalFilter = filter;
+            ids = ids.stream().filter(id -> finalFilter.contains(id)).toList();
+        }
+        List<ProductMinDTO> content = hydrate(pageOf(ids, pageable));
+        return new PageImpl<>(content, pageable, ids.size());
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ProductMinDTO> findSlice(String name, Pageable pageable) {
+        if (name.isEmpty() || !nameIndex.isReady() || !nameIndex.supports(pageable.getSort())) {
+            return repository.searchSliceByName(name, pageable);
+        }
+        List<Long> ids = nameIndex.search(name, pageable.getSort());
+        List<ProductMinDTO> content = hydrate(pageOf(ids, pageable));
+        boolean hasNext = pageable.isPaged() && pageable.getOffset() + pageable.getPageSize() < ids.size();
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > 50) {
+            throw new BadRequestException("O limite deve estar entre 1 e 50");
+        }
+        return nameTrie.suggest(prefix, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductMinDTO> findAllAfter(String name, String sort, String after, int size) {
+        if (size < 1 || size > 100) {
+            throw new BadRequestException("O tamanho da página deve estar entre 1 e 100");
+        }
+        Pageable limit = PageRequest.of(0, size + 1);
+        String[] cursor = (after == null || after.isBlank()) ? null : CursorUtil.decode(after, 3);
+        if (cursor != null && !cursor[0].equals(sort)) {
+            throw new BadRequestException("Cursor não corresponde à ordenação");
+        }
+        Long lastId = (cursor == null) ? 0L : parseId(cursor[1]);
+
+        List<ProductMinDTO> result;
+        switch (sort) {
+            case "id":
+                result = repository.searchByNameAfterId(name, lastId, limit);
+                break;
+            case "name":
+                String lastName = (cursor == null) ? "" : cursor[2];
+                result = repository.searchByNameAfterName(name, lastName, lastId, limit);
+                break;
+            default:
+                throw new BadRequestException("Ordenação não suportada: " + sort);
+        }
+
+        String next = null;
+        if (result.size() > size) {
+            result = result.subList(0, size);
+            ProductMinDTO last = result.get(size - 1);
+            String key = sort.equals("name") ? last.getName() : "";
+            next = CursorUtil.encode(sort, last.getId().toString(), key);
+        }
+        return new CursorPageDTO<>(result, next);
     }
 
     @Transactional
@@ -43,33 +232,184 @@ public class ProductService {
         Product entity = new Product();
         copyDtoToEntity(dto, entity);
         entity = repository.save(entity);
+        index(entity);
         return new ProductDTO(entity);
     }
 
     @Transactional
-    public ProductDTO update(Long id, ProductDTO dto) {
+    public ProductDTO update(Long id, ProductDTO dto, Integer expectedVersion) {
         try {
             Product entity = repository.getReferenceById(id);
+            if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+                throw new PreconditionFailedException("Produto alterado por outra requisição");
+            }
             copyDtoToEntity(dto, entity);
-            entity = repository.save(entity);
+            // O flush aplica o incremento da versão antes de montar a resposta
+            entity = repository.saveAndFlush(entity);
+            index(entity);
             return new ProductDTO(entity);
         }
         catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Recurso não encontrado");
         }
+        catch (OptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("Produto alterado por outra requisição");
+        }
     }
 
-    @Transactional(propagation = Propagation.SUPPORTS)
+    @Transactional
+    public BulkResultDTO adjustPrice(PriceAdjustmentDTO dto) {
+        if (!categoryRepository.existsById(dto.getCategoryId())) {
+            throw new ResourceNotFoundException("Categoria não encontrada");
+        }
+        int affected = repository.updatePriceByCategory(dto.getCategoryId(), 1 + dto.getPercent() / 100);
+        List<ProductPriceProjection> prices = repository.searchPricesByCategory(dto.getCategoryId());
+        TransactionUtil.afterCommit(() -> {
+            for (ProductPriceProjection row : prices) {
+                priceIndex.put(row.getId(), row.getVersion(), row.getPrice());
+                cache.evict(row.getId());
+                versions.touchProduct(row.getId(), row.getVersion());
+            }
+        });
+        return new BulkResultDTO(affected);
+    }
+
+    @Transactional
+    public BulkResultDTO reassignCategories(CategoryAssignmentDTO dto) {
+        List<Long> categoryIds = dto.getCategoryIds().stream().distinct().toList();
+        if (categoryRepository.countByIdIn(categoryIds) != categoryIds.size()) {
+            throw new ResourceNotFoundException("Categoria não encontrada");
+        }
+        List<Long> ids = repository.searchExistingIds(dto.getProductIds().stream().distinct().toList());
+        if (ids.isEmpty()) {
+            return new BulkResultDTO(0);
+        }
+        repository.deleteCategoriesByProductIds(ids);
+        repository.insertCategoriesByProductIds(ids, categoryIds);
+        repository.incrementVersions(ids);
+        List<ProductVersionProjection> updated = repository.searchVersions(ids);
+        TransactionUtil.afterCommit(() -> {
+            for (ProductVersionProjection row : updated) {
+                categoryIndex.put(row.getId(), row.getVersion(), categoryIds);
+                cache.evict(row.getId());
+                versions.touchProduct(row.getId(), row.getVersion());
+            }
+            categoryService.refreshCounts();
+        });
+        return new BulkResultDTO(ids.size());
+    }
+
+    @Transactional
     public void delete(Long id) {
-    	if (!repository.existsById(id)) {
-    		throw new ResourceNotFoundException("Recurso não encontrado");
-    	}
-    	try {
-            repository.deleteById(id);    		
-    	}
+        try {
+            if (repository.bulkDelete(List.of(id)) == 0) {
+                throw new ResourceNotFoundException("Recurso não encontrado");
+            }
+        }
         catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Falha de integridade referencial");
         }
+        unindex(List.of(id));
+    }
+
+    @Transactional
+    public DeleteResultDTO deleteAll(List<Long> ids) {
+        ids = ids.stream().distinct().toList();
+        if (ids.isEmpty() || ids.size() > 1000) {
+            throw new BadRequestException("Informe de 1 a 1000 ids");
+        }
+        Set<Long> existing = new HashSet<>(repository.searchExistingIds(ids));
+        Set<Long> referenced = new HashSet<>(repository.searchReferencedIds(List.copyOf(existing)));
+        List<Long> deletable = existing.stream().filter(id -> !referenced.contains(id)).sorted().toList();
+        List<Long> notFound = ids.stream().filter(id -> !existing.contains(id)).toList();
+        if (!deletable.isEmpty()) {
+            try {
+                repository.bulkDelete(deletable);
+            }
+            catch (DataIntegrityViolationException e) {
+                throw new DatabaseException("Falha de integridade referencial");
+            }
+            unindex(deletable);
+        }
+        return new DeleteResultDTO(deletable.size(), notFound, referenced.stream().sorted().toList());
+    }
+
+    private Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        }
+        catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    private Double lowerPrice(Double minPrice) {
+        return (minPrice == null) ? -Double.MAX_VALUE : minPrice;
+    }
+
+    private Double upperPrice(Double maxPrice) {
+        return (maxPrice == null) ? Double.MAX_VALUE : maxPrice;
+    }
+
+    private List<Long> pageOf(List<Long> ids, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return ids;
+        }
+        int start = (int) Math.min(pageable.getOffset(), ids.size());
+        int end = Math.min(start + pageable.getPageSize(), ids.size());
+        return ids.subList(start, end);
+    }
+
+    private List<ProductMinDTO> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductMinDTO> map = new HashMap<>();
+        for (ProductMinDTO p : repository.searchByIds(ids)) {
+            map.put(p.getId(), p);
+        }
+        return ids.stream().map(id -> map.get(id)).filter(p -> p != null).toList();
+    }
+
+    private void unindex(List<Long> ids) {
+        TransactionUtil.afterCommit(() -> {
+            for (Long id : ids) {
+                nameIndex.remove(id);
+                categoryIndex.remove(id);
+                priceIndex.remove(id);
+                nameTrie.remove(id);
+                cache.evict(id);
+                versions.removeProduct(id);
+            }
+            categoryService.refreshCounts();
+        });
+    }
+
+    void index(Product entity) {
+        indexAll(List.of(entity));
+    }
+
+    // A versão acompanha a escrita para que os índices descartem callbacks que chegam fora de ordem.
+    // Um bloco inteiro vai aos índices em uma chamada por índice, com uma só recontagem de categorias.
+    void indexAll(List<Product> entities) {
+        List<ProductIndexEntry> entries = new ArrayList<>(entities.size());
+        Map<Long, Integer> versionsById = new HashMap<>();
+        for (Product entity : entities) {
+            List<Long> categoryIds = entity.getCategories().stream().map(x -> x.getId()).toList();
+            entries.add(new ProductIndexEntry(entity.getId(), entity.getVersion(), entity.getName(), entity.getPrice(), categoryIds));
+            versionsById.put(entity.getId(), entity.getVersion());
+        }
+        TransactionUtil.afterCommit(() -> {
+            nameIndex.putAll(entries);
+            categoryIndex.putAll(entries);
+            priceIndex.putAll(entries);
+            nameTrie.putAll(entries);
+            for (ProductIndexEntry entry : entries) {
+                cache.evict(entry.getId());
+            }
+            versions.touchProducts(versionsById);
+            categoryService.refreshCounts();
+        });
     }
 
     private void copyDtoToEntity(ProductDTO dto, Product entity) {
@@ -78,11 +418,16 @@ public class ProductService {
         entity.setPrice(dto.getPrice());
         entity.setImgUrl(dto.getImgUrl());
         
-        entity.getCategories().clear();
-        for (CategoryDTO catDto : dto.getCategories()) {
-        	Category cat = new Category();
-        	cat.setId(catDto.getId());
-        	entity.getCategories().add(cat);
+        // Altera só a diferença para que o Hibernate não recrie as linhas de tb_product_category
+        Set<Long> categoryIds = dto.getCategories().stream().map(x -> x.getId()).collect(Collectors.toSet());
+        entity.getCategories().removeIf(cat -> !categoryIds.contains(cat.getId()));
+        Set<Long> currentIds = entity.getCategories().stream().map(x -> x.getId()).collect(Collectors.toSet());
+        for (Long categoryId : categoryIds) {
+            if (!currentIds.contains(categoryId)) {
+                Category cat = new Category();
+                cat.setId(categoryId);
+                entity.getCategories().add(cat);
+            }
         }
     }
 }
@@ -0,0 +1,32 @@
+package com.devsuperior.dscommerce.services.cache;
+
+public class CachedResponse {
+
+    private final String contentType;
+    private final String etag;
+    private final byte[] body;
+    private final byte[] gzipBody;
+
+    public CachedResponse(String contentType, String etag, byte[] body, byte[] gzipBody) {
+        this.contentType = contentType;
+        this.etag = etag;
+        this.body = body;
+        this.gzipBody = gzipBody;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+}
@@ -0,0 +1,147 @@
+package com.devsuperior.dscommerce.services.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.projections.ProductVersionProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/*
+ * Versões do catálogo usadas para ETag e Last-Modified. Cada produto guarda a última @Version
+ * conhecida, carregada no boot e avançada após o commit de cada escrita, para que GET condicional
+ * responda 304 sem consultar o banco. Versões menores que a registrada são ignoradas, já que os
+ * callbacks de after-commit podem chegar fora de ordem; produto removido fica marcado pelo tempo de
+ * cache.tombstone-ttl, o bastante para barrar escritas atrasadas sem acumular marcas para sempre.
+ * Produtos sem escrita desde a inicialização têm Last-Modified igual ao boot, e o instante do boot
+ * entra no ETag das categorias para que versões de execuções anteriores nunca coincidam.
+ */
+@Component
+public class CatalogVersions {
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final long epoch = System.currentTimeMillis();
+    // Por produto: { versão, Last-Modified }
+    private final Map<Long, long[]> products = new ConcurrentHashMap<>();
+    private final Cache<Long, Boolean> removed;
+    private volatile long[] categories = { 0, epoch };
+    private final AtomicLong generation = new AtomicLong();
+
+    public CatalogVersions(@Value("${cache.tombstone-ttl:60}") long tombstoneTtlSeconds) {
+        removed = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(tombstoneTtlSeconds))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (ProductVersionProjection row : repository.searchAllVersions()) {
+            observeProduct(row.getId(), row.getVersion());
+        }
+    }
+
+    // Versão atual conhecida, ou null quando o produto é desconhecido ou foi removido
+    public VersionStamp product(Long id) {
+        long[] stamp = products.get(id);
+        if (stamp == null) {
+            return null;
+        }
+        return new VersionStamp(productEtag(id, (int) stamp[0]), stamp[1]);
+    }
+
+    public VersionStamp product(Long id, Integer version) {
+        long[] stamp = products.get(id);
+        long lastModified = (stamp == null) ? epoch : stamp[1];
+        return new VersionStamp(productEtag(id, version), lastModified);
+    }
+
+    // Versão lida do banco; só preenche o que ainda não se conhece
+    public void observeProduct(Long id, Integer version) {
+        long[] stamp = products.get(id);
+        if (version != null && (stamp == null || stamp[0] < version)) {
+            record(id, version, (stamp == null) ? epoch : System.currentTimeMillis());
+        }
+    }
+
+    public void touchProduct(Long id, Integer version) {
+        if (version != null) {
+            record(id, version, System.currentTimeMillis());
+        }
+        generation.incrementAndGet();
+    }
+
+    // Uma única mudança de geração para o bloco inteiro
+    public void touchProducts(Map<Long, Integer> versionsById) {
+        long now = System.currentTimeMillis();
+        versionsById.forEach((id, version) -> {
+            if (version != null) {
+                record(id, version, now);
+            }
+        });
+        generation.incrementAndGet();
+    }
+
+    // A marca entra antes da remoção; o record consulta a marca dentro do compute, então não recria a entrada
+    public void removeProduct(Long id) {
+        removed.put(id, Boolean.TRUE);
+        products.remove(id);
+        generation.incrementAndGet();
+    }
+
+    private void record(Long id, long version, long lastModified) {
+        products.compute(id, (key, old) -> {
+            if (removed.getIfPresent(id) != null) {
+                return null;
+            }
+            return (old == null || old[0] < version) ? new long[] { version, lastModified } : old;
+        });
+    }
+
+    public static String productEtag(Long id, Integer version) {
+        return "\"p" + id + "-v" + version + "\"";
+    }
+
+    // Versão contida em um ETag de produto, ou null quando o valor não é um ETag deste produto
+    public static Integer parseProductEtag(Long id, String etag) {
+        String prefix = "\"p" + id + "-v";
+        if (etag == null || !etag.startsWith(prefix) || !etag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(etag.substring(prefix.length(), etag.length() - 1));
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public VersionStamp categories() {
+        long[] stamp = categories;
+        return new VersionStamp(etag("c", stamp[0]), stamp[1]);
+    }
+
+    public synchronized void touchCategories() {
+        categories = new long[] { categories[0] + 1, System.currentTimeMillis() };
+        generation.incrementAndGet();
+    }
+
+    // Muda a cada escrita no catálogo; respostas guardadas com uma geração anterior deixam de ser usadas
+    public long generation() {
+        return generation.get();
+    }
+
+    private String etag(String prefix, long version) {
+        return "\"" + prefix + "-" + epoch + "-" + version + "\"";
+    }
+}
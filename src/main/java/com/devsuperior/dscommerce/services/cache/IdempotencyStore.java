@@ -0,0 +1,93 @@
+package com.devsuperior.dscommerce.services.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.util.CustomUserUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/*
+ * Resultados de requisições com Idempotency-Key, por usuário, guardados por um tempo limitado.
+ * A primeira requisição registra uma entrada pendente com putIfAbsent; repetições concorrentes esperam
+ * o mesmo resultado em vez de executar de novo, e repetições posteriores o recebem direto do cache.
+ * Se a execução falha, a chave é liberada para que uma nova tentativa rode normalmente.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final CustomUserUtil userUtil;
+    private final Cache<String, Entry> cache;
+
+    public IdempotencyStore(
+            CustomUserUtil userUtil,
+            @Value("${idempotency.maximum-size:100000}") long maximumSize,
+            @Value("${idempotency.ttl:86400}") long ttlSeconds) {
+        this.userUtil = userUtil;
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    // fingerprint identifica o conteúdo da requisição; a mesma chave com outro conteúdo é rejeitada
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Object fingerprint, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key deve ter de 1 a " + MAX_KEY_LENGTH + " caracteres");
+        }
+        String scopedKey = userUtil.getLoggedUsername() + ":" + key;
+        Entry entry = new Entry(fingerprint);
+        Entry existing = cache.asMap().putIfAbsent(scopedKey, entry);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new BadRequestException("Idempotency-Key já usada com outra requisição");
+            }
+            return (T) existing.await();
+        }
+        try {
+            T result = action.get();
+            entry.result.complete(result);
+            return result;
+        }
+        catch (RuntimeException e) {
+            cache.asMap().remove(scopedKey, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static class Entry {
+
+        private final Object fingerprint;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Entry(Object fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        Object await() {
+            try {
+                return result.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
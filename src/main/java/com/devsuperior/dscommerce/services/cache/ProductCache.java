@@ -0,0 +1,70 @@
+package com.devsuperior.dscommerce.services.cache;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.dto.CacheStatsDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/*
+ * Cache de leitura de ProductDTO. Cada invalidação avança um carimbo do id; quem carrega do banco lê o
+ * carimbo antes da consulta e o put é descartado se houve invalidação no meio, para que um leitor
+ * atrasado não grave de volta a versão anterior à escrita. Os carimbos expiram após cache.tombstone-ttl:
+ * só importam enquanto há uma consulta em curso, e uma consulta nunca dura tanto.
+ */
+@Component
+public class ProductCache {
+
+    // Caffeine usa a política W-TinyLFU: admite novas entradas conforme a frequência de acesso
+    private final Cache<Long, ProductDTO> cache;
+    private final Map<Long, Long> stamps;
+
+    public ProductCache(
+            @Value("${cache.products.maximum-size:10000}") long maximumSize,
+            @Value("${cache.products.ttl:600}") long ttlSeconds,
+            @Value("${cache.tombstone-ttl:60}") long stampTtlSeconds) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        stamps = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(stampTtlSeconds))
+                .<Long, Long>build()
+                .asMap();
+    }
+
+    public ProductDTO get(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    public long stamp(Long id) {
+        return stamps.getOrDefault(id, 0L);
+    }
+
+    // O compute serializa o put com a invalidação do mesmo id
+    public void put(Long id, ProductDTO dto, long stamp) {
+        stamps.compute(id, (key, current) -> {
+            if (((current == null) ? 0L : current) == stamp) {
+                cache.put(id, dto);
+            }
+            return current;
+        });
+    }
+
+    public void evict(Long id) {
+        stamps.merge(id, 1L, Long::sum);
+        cache.invalidate(id);
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+}
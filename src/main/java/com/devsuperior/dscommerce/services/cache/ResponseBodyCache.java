@@ -0,0 +1,48 @@
+package com.devsuperior.dscommerce.services.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/*
+ * Corpos de resposta já serializados (e compactados) das páginas mais acessadas do catálogo.
+ * A chave inclui a geração do catálogo, então uma escrita torna as entradas antigas inalcançáveis
+ * e o limite de tamanho do Caffeine as descarta.
+ */
+@Component
+public class ResponseBodyCache {
+
+    private final Cache<String, CachedResponse> cache;
+
+    public ResponseBodyCache(@Value("${cache.responses.maximum-size:256}") long maximumSize) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, String contentType, String etag, byte[] body) {
+        cache.put(key, new CachedResponse(contentType, etag, body, gzip(body)));
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(body.length / 4 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(result)) {
+            out.write(body);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result.toByteArray();
+    }
+}
@@ -0,0 +1,20 @@
+package com.devsuperior.dscommerce.services.cache;
+
+public class VersionStamp {
+
+    private final String etag;
+    private final long lastModified;
+
+    public VersionStamp(String etag, long lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,9 @@
+package com.devsuperior.dscommerce.services.exceptions;
+
+@SuppressWarnings("serial")
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,273 @@
+package com.devsuperior.dscommerce.services.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Conjunto comprimido de ids no estilo Roaring: os 48 bits altos do id escolhem um container
+ * e os 16 bits baixos são guardados em um array ordenado (até 4096 valores) ou em um bitmap de 64 Kbits.
+ * A chave é long, então qualquer id da sequence é aceito.
+ */
+public class IdBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+
+    private final TreeMap<Long, Container> containers = new TreeMap<>();
+
+    public static IdBitmap of(Iterable<Long> ids) {
+        IdBitmap result = new IdBitmap();
+        for (Long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    public void add(long id) {
+        long key = id >> 16;
+        Container container = containers.get(key);
+        if (container == null) {
+            container = new ArrayContainer();
+        }
+        containers.put(key, container.add((char) id));
+    }
+
+    public void remove(long id) {
+        long key = id >> 16;
+        Container container = containers.get(key);
+        if (container == null) {
+            return;
+        }
+        container = container.remove((char) id);
+        if (container.cardinality() == 0) {
+            containers.remove(key);
+        }
+        else {
+            containers.put(key, container);
+        }
+    }
+
+    public boolean contains(long id) {
+        Container container = containers.get(id >> 16);
+        return container != null && container.contains((char) id);
+    }
+
+    public int cardinality() {
+        int result = 0;
+        for (Container container : containers.values()) {
+            result += container.cardinality();
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return containers.isEmpty();
+    }
+
+    public IdBitmap and(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        for (Map.Entry<Long, Container> entry : containers.entrySet()) {
+            Container container = other.containers.get(entry.getKey());
+            if (container != null) {
+                Container intersection = entry.getValue().and(container);
+                if (intersection.cardinality() > 0) {
+                    result.containers.put(entry.getKey(), intersection);
+                }
+            }
+        }
+        return result;
+    }
+
+    public List<Long> toList() {
+        List<Long> result = new ArrayList<>(cardinality());
+        for (Map.Entry<Long, Container> entry : containers.entrySet()) {
+            long high = entry.getKey() << 16;
+            entry.getValue().appendTo(high, result);
+        }
+        return result;
+    }
+
+    public IdBitmap copy() {
+        IdBitmap result = new IdBitmap();
+        for (Map.Entry<Long, Container> entry : containers.entrySet()) {
+            result.containers.put(entry.getKey(), entry.getValue().copy());
+        }
+        return result;
+    }
+
+    private interface Container {
+        Container add(char value);
+        Container remove(char value);
+        boolean contains(char value);
+        int cardinality();
+        Container and(Container other);
+        void appendTo(long high, List<Long> result);
+        Container copy();
+    }
+
+    private static class ArrayContainer implements Container {
+
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        public Container add(char value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            pos = -pos - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(values.length * 2, ARRAY_MAX));
+            }
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos >= 0) {
+                System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public Container and(Container other) {
+            ArrayContainer result = new ArrayContainer();
+            result.values = new char[Math.max(size, 1)];
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) {
+                    result.values[result.size++] = values[i];
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void appendTo(long high, List<Long> result) {
+            for (int i = 0; i < size; i++) {
+                result.add(high | values[i]);
+            }
+        }
+
+        @Override
+        public Container copy() {
+            ArrayContainer result = new ArrayContainer();
+            result.values = Arrays.copyOf(values, Math.max(size, 1));
+            result.size = size;
+            return result;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer result = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                result.add(values[i]);
+            }
+            return result;
+        }
+    }
+
+    private static class BitmapContainer implements Container {
+
+        private long[] words = new long[1024];
+        private int cardinality;
+
+        @Override
+        public Container add(char value) {
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) == 0) {
+                words[value >>> 6] |= mask;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) != 0) {
+                words[value >>> 6] &= ~mask;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            BitmapContainer bitmap = (BitmapContainer) other;
+            BitmapContainer result = new BitmapContainer();
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] = words[i] & bitmap.words[i];
+                result.cardinality += Long.bitCount(result.words[i]);
+            }
+            return result.cardinality <= ARRAY_MAX ? result.toArray() : result;
+        }
+
+        @Override
+        public void appendTo(long high, List<Long> result) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    result.add(high | (i << 6) | bit);
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        public Container copy() {
+            BitmapContainer result = new BitmapContainer();
+            result.words = Arrays.copyOf(words, words.length);
+            result.cardinality = cardinality;
+            return result;
+        }
+
+        private ArrayContainer toArray() {
+            ArrayContainer result = new ArrayContainer();
+            result.values = new char[Math.max(cardinality, 1)];
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    result.values[result.size++] = (char) ((i << 6) | bit);
+                    word &= word - 1;
+                }
+            }
+            return result;
+        }
+    }
+}
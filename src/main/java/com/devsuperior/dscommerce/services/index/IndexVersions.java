@@ -0,0 +1,51 @@
+package com.devsuperior.dscommerce.services.index;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/*
+ * Versão (@Version) da última escrita aplicada a cada produto em um índice.
+ * Os callbacks de after-commit de duas transações podem rodar fora de ordem; a escrita com versão
+ * menor que a já aplicada é descartada. Produtos removidos ficam marcados por TOMBSTONE_TTL para que
+ * uma atualização atrasada não os traga de volta; passado esse tempo a marca expira, já que nenhum
+ * callback da época da remoção continua pendente. Não é thread-safe: o índice usa sob o seu lock de escrita.
+ */
+class IndexVersions {
+
+    private static final Duration TOMBSTONE_TTL = Duration.ofSeconds(60);
+
+    private final Map<Long, Integer> versions = new HashMap<>();
+    private final Cache<Long, Boolean> removed = Caffeine.newBuilder()
+            .expireAfterWrite(TOMBSTONE_TTL)
+            .build();
+
+    // Registra a versão e informa se a escrita deve ser aplicada; versão nula não tem controle de ordem
+    boolean accept(Long id, Integer version) {
+        if (removed.getIfPresent(id) != null) {
+            return false;
+        }
+        if (version == null) {
+            return true;
+        }
+        Integer current = versions.get(id);
+        if (current != null && version < current) {
+            return false;
+        }
+        versions.put(id, version);
+        return true;
+    }
+
+    void removed(Long id) {
+        versions.remove(id);
+        removed.put(id, Boolean.TRUE);
+    }
+
+    void clear() {
+        versions.clear();
+        removed.invalidateAll();
+    }
+}
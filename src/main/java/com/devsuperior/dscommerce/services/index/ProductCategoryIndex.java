@@ -0,0 +1,151 @@
+package com.devsuperior.dscommerce.services.index;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.projections.ProductCategoryProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+@Component
+public class ProductCategoryIndex {
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IdBitmap> bitmaps = new HashMap<>();
+    private final Map<Long, Set<Long>> categoriesByProduct = new HashMap<>();
+    private final IndexVersions versions = new IndexVersions();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild(repository.searchAllProductCategories());
+    }
+
+    public void rebuild(List<ProductCategoryProjection> rows) {
+        lock.writeLock().lock();
+        try {
+            bitmaps.clear();
+            categoriesByProduct.clear();
+            versions.clear();
+            for (ProductCategoryProjection row : rows) {
+                add(row.getProductId(), row.getCategoryId());
+            }
+            ready = true;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(Long productId, Integer version, Collection<Long> categoryIds) {
+        lock.writeLock().lock();
+        try {
+            if (!versions.accept(productId, version)) {
+                return;
+            }
+            delete(productId);
+            for (Long categoryId : categoryIds) {
+                add(productId, categoryId);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAll(Collection<ProductIndexEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            for (ProductIndexEntry entry : entries) {
+                if (versions.accept(entry.getId(), entry.getVersion())) {
+                    delete(entry.getId());
+                    for (Long categoryId : entry.getCategoryIds()) {
+                        add(entry.getId(), categoryId);
+                    }
+                }
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            delete(productId);
+            versions.removed(productId);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Produtos presentes em todas as categorias informadas
+    public IdBitmap intersect(Collection<Long> categoryIds) {
+        lock.readLock().lock();
+        try {
+            IdBitmap result = null;
+            for (Long categoryId : categoryIds) {
+                IdBitmap bitmap = bitmaps.get(categoryId);
+                if (bitmap == null) {
+                    return new IdBitmap();
+                }
+                result = (result == null) ? bitmap.copy() : result.and(bitmap);
+            }
+            return (result == null) ? new IdBitmap() : result;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(Long categoryId) {
+        lock.readLock().lock();
+        try {
+            IdBitmap bitmap = bitmaps.get(categoryId);
+            return (bitmap == null) ? 0 : bitmap.cardinality();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long productId, Long categoryId) {
+        bitmaps.computeIfAbsent(categoryId, x -> new IdBitmap()).add(productId);
+        categoriesByProduct.computeIfAbsent(productId, x -> new HashSet<>()).add(categoryId);
+    }
+
+    private void delete(Long productId) {
+        Set<Long> categoryIds = categoriesByProduct.remove(productId);
+        if (categoryIds == null) {
+            return;
+        }
+        for (Long categoryId : categoryIds) {
+            IdBitmap bitmap = bitmaps.get(categoryId);
+            if (bitmap != null) {
+                bitmap.remove(productId);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(categoryId);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.devsuperior.dscommerce.services.index;
+
+import java.util.List;
+
+// Valores de um produto capturados na escrita e aplicados aos índices após o commit
+public class ProductIndexEntry {
+
+    private final Long id;
+    private final Integer version;
+    private final String name;
+    private final Double price;
+    private final List<Long> categoryIds;
+
+    public ProductIndexEntry(Long id, Integer version, String name, Double price, List<Long> categoryIds) {
+        this.id = id;
+        this.version = version;
+        this.name = name;
+        this.price = price;
+        this.categoryIds = categoryIds;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public List<Long> getCategoryIds() {
+        return categoryIds;
+    }
+}
@@ -0,0 +1,237 @@
+package com.devsuperior.dscommerce.services.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.projections.ProductNameProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/*
+ * Índice invertido de trigramas sobre o nome normalizado dos produtos.
+ * Reproduz a semântica de UPPER(name) LIKE UPPER('%termo%'): os trigramas do termo
+ * selecionam os candidatos e a verificação final de substring elimina falsos positivos.
+ * Termos com menos de três letras percorrem os nomes em ordem de id, sem cópia do catálogo.
+ */
+@Component
+public class ProductNameIndex {
+
+    private static final int GRAM = 3;
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> names = new HashMap<>();
+    private final TreeMap<Long, String> normalizedNames = new TreeMap<>();
+    private final Map<String, TreeSet<Long>> postings = new HashMap<>();
+    private final IndexVersions versions = new IndexVersions();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild(repository.searchAllNames());
+    }
+
+    public void rebuild(List<ProductNameProjection> rows) {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            normalizedNames.clear();
+            postings.clear();
+            versions.clear();
+            for (ProductNameProjection row : rows) {
+                add(row.getId(), row.getName());
+            }
+            ready = true;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(Long id, Integer version, String name) {
+        lock.writeLock().lock();
+        try {
+            if (!versions.accept(id, version)) {
+                return;
+            }
+            delete(id);
+            add(id, name);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAll(Collection<ProductIndexEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            for (ProductIndexEntry entry : entries) {
+                if (versions.accept(entry.getId(), entry.getVersion())) {
+                    delete(entry.getId());
+                    add(entry.getId(), entry.getName());
+                }
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            delete(id);
+            versions.removed(id);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean supports(Sort sort) {
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != 1) {
+            return false;
+        }
+        String property = orders.get(0).getProperty();
+        return property.equals("id") || property.equals("name");
+    }
+
+    public List<Long> search(String name, Sort sort) {
+        String term = normalize(name);
+        lock.readLock().lock();
+        try {
+            List<Long> result;
+            if (term.isEmpty()) {
+                result = new ArrayList<>(normalizedNames.keySet());
+            }
+            else if (term.length() < GRAM) {
+                result = new ArrayList<>();
+                for (Map.Entry<Long, String> entry : normalizedNames.entrySet()) {
+                    if (entry.getValue().contains(term)) {
+                        result.add(entry.getKey());
+                    }
+                }
+            }
+            else {
+                result = new ArrayList<>();
+                for (Long id : candidates(term)) {
+                    if (normalizedNames.get(id).contains(term)) {
+                        result.add(id);
+                    }
+                }
+            }
+            sort(result, sort);
+            return result;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ordena ids já filtrados por outro índice, sem passar pelo catálogo inteiro
+    public List<Long> sorted(Collection<Long> ids, Sort sort) {
+        List<Long> result = new ArrayList<>(ids);
+        lock.readLock().lock();
+        try {
+            sort(result, sort);
+            return result;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Iterable<Long> candidates(String term) {
+        List<TreeSet<Long>> lists = new ArrayList<>();
+        for (String gram : grams(term)) {
+            TreeSet<Long> list = postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(TreeSet::size));
+        TreeSet<Long> result = new TreeSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void sort(List<Long> ids, Sort sort) {
+        if (sort.isUnsorted()) {
+            return;
+        }
+        Sort.Order order = sort.iterator().next();
+        Comparator<Long> comparator = Comparator.naturalOrder();
+        if (order.getProperty().equals("name")) {
+            comparator = Comparator.comparing((Long id) -> names.get(id), Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                    .thenComparing(Comparator.naturalOrder());
+        }
+        ids.sort(order.isAscending() ? comparator : comparator.reversed());
+    }
+
+    private void add(Long id, String name) {
+        String normalized = normalize(name);
+        names.put(id, name);
+        normalizedNames.put(id, normalized);
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, x -> new TreeSet<>()).add(id);
+        }
+    }
+
+    private void delete(Long id) {
+        names.remove(id);
+        String normalized = normalizedNames.remove(id);
+        if (normalized == null) {
+            return;
+        }
+        for (String gram : grams(normalized)) {
+            TreeSet<Long> list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String normalized) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            result.add(normalized.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,386 @@
+package com.devsuperior.dscommerce.services.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.dto.ProductSuggestionDTO;
+import com.devsuperior.dscommerce.projections.ProductNameProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/*
+ * Trie compacta (radix) dos nomes normalizados, inserindo o nome a partir do início de cada palavra,
+ * para que o prefixo digitado case com qualquer palavra do nome. Cadeias de nós com um único filho
+ * viram uma aresta rotulada, então cada sufixo acrescenta no máximo dois nós.
+ * Cada nó guarda os TOP_K menores ids da sua subárvore: a sugestão desce pelo prefixo e responde
+ * com essa lista, sem percorrer a subárvore. Os filhos ficam em arrays ordenados, sem mapas por nó.
+ */
+@Component
+public class ProductNameTrie {
+
+    // Igual ao maior limite aceito por ProductService.suggest
+    private static final int TOP_K = 50;
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> names = new HashMap<>();
+    private final IndexVersions versions = new IndexVersions();
+    private Node root = new Node();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild(repository.searchAllNames());
+    }
+
+    public void rebuild(List<ProductNameProjection> rows) {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            versions.clear();
+            root = new Node();
+            for (ProductNameProjection row : rows) {
+                add(row.getId(), row.getName());
+            }
+            ready = true;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(Long id, Integer version, String name) {
+        lock.writeLock().lock();
+        try {
+            if (!versions.accept(id, version)) {
+                return;
+            }
+            delete(id);
+            add(id, name);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAll(Collection<ProductIndexEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            for (ProductIndexEntry entry : entries) {
+                if (versions.accept(entry.getId(), entry.getVersion())) {
+                    delete(entry.getId());
+                    add(entry.getId(), entry.getName());
+                }
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            delete(id);
+            versions.removed(id);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = key.isEmpty() ? null : find(key);
+            if (node == null) {
+                return List.of();
+            }
+            int count = Math.min(limit, node.topCount);
+            List<ProductSuggestionDTO> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(new ProductSuggestionDTO(node.top[i], names.get(node.top[i])));
+            }
+            return result;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Nó cuja subárvore contém todos os sufixos que começam com key; o prefixo pode terminar no meio de uma aresta
+    private Node find(String key) {
+        Node node = root;
+        int pos = 0;
+        while (pos < key.length()) {
+            Node child = node.child(key.charAt(pos));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefix(child.label, key, pos);
+            if (pos + common == key.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            pos += common;
+        }
+        return node;
+    }
+
+    private void add(Long id, String name) {
+        if (name == null) {
+            return;
+        }
+        names.put(id, name);
+        for (String suffix : suffixes(normalize(name))) {
+            insert(suffix, id);
+        }
+    }
+
+    private void insert(String suffix, long id) {
+        Node node = root;
+        int pos = 0;
+        while (pos < suffix.length()) {
+            char c = suffix.charAt(pos);
+            Node child = node.child(c);
+            if (child == null) {
+                child = new Node(suffix.substring(pos));
+                node.putChild(c, child);
+                node = child;
+                break;
+            }
+            int common = commonPrefix(child.label, suffix, pos);
+            if (common < child.label.length()) {
+                // Divide a aresta no ponto em que o sufixo diverge
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.putChild(child.label.charAt(0), child);
+                middle.copyTop(child);
+                node.putChild(c, middle);
+                child = middle;
+            }
+            node = child;
+            node.addTop(id);
+            pos += common;
+        }
+        node.addId(id);
+        node.addTop(id);
+    }
+
+    private void delete(Long id) {
+        String name = names.remove(id);
+        if (name == null) {
+            return;
+        }
+        for (String suffix : suffixes(normalize(name))) {
+            remove(suffix, id);
+        }
+    }
+
+    private void remove(String suffix, long id) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int pos = 0;
+        while (pos < suffix.length()) {
+            node = node.child(suffix.charAt(pos));
+            if (node == null || !suffix.startsWith(node.label, pos)) {
+                return;
+            }
+            path.add(node);
+            pos += node.label.length();
+        }
+        node.removeId(id);
+        // Do nó final até a raiz: descarta nós vazios, junta cadeias de filho único e refaz as listas de top-k
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            char key = current.label.charAt(0);
+            if (current.idCount == 0 && current.childCount == 0) {
+                parent.removeChild(key);
+            }
+            else if (current.idCount == 0 && current.childCount == 1) {
+                Node child = current.children[0];
+                child.label = current.label + child.label;
+                parent.putChild(key, child);
+            }
+            else if (current.hasTop(id)) {
+                current.recomputeTop();
+            }
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static List<String> suffixes(String normalized) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            boolean wordStart = normalized.charAt(i) != ' ' && (i == 0 || normalized.charAt(i - 1) == ' ');
+            if (wordStart) {
+                result.add(normalized.substring(i));
+            }
+        }
+        return result;
+    }
+
+    private static String normalize(String value) {
+        return (value == null) ? "" : value.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    private static class Node {
+
+        // Rótulo da aresta que chega a este nó
+        private String label;
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+        // Ids cujo sufixo termina exatamente aqui
+        private long[] ids = new long[0];
+        private int idCount;
+        // Até TOP_K menores ids da subárvore, em ordem crescente
+        private long[] top = new long[0];
+        private int topCount;
+
+        Node() {
+            this("");
+        }
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int pos = Arrays.binarySearch(keys, 0, childCount, c);
+            return (pos >= 0) ? children[pos] : null;
+        }
+
+        // Insere ou substitui o filho da primeira letra c
+        void putChild(char c, Node node) {
+            int pos = Arrays.binarySearch(keys, 0, childCount, c);
+            if (pos >= 0) {
+                children[pos] = node;
+                return;
+            }
+            pos = -pos - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, pos, keys, pos + 1, childCount - pos);
+            System.arraycopy(children, pos, children, pos + 1, childCount - pos);
+            keys[pos] = c;
+            children[pos] = node;
+            childCount++;
+        }
+
+        void removeChild(char c) {
+            int pos = Arrays.binarySearch(keys, 0, childCount, c);
+            if (pos >= 0) {
+                System.arraycopy(keys, pos + 1, keys, pos, childCount - pos - 1);
+                System.arraycopy(children, pos + 1, children, pos, childCount - pos - 1);
+                childCount--;
+                children[childCount] = null;
+            }
+        }
+
+        void addId(long id) {
+            int pos = Arrays.binarySearch(ids, 0, idCount, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(1, idCount * 2));
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, idCount - pos);
+            ids[pos] = id;
+            idCount++;
+        }
+
+        void removeId(long id) {
+            int pos = Arrays.binarySearch(ids, 0, idCount, id);
+            if (pos >= 0) {
+                System.arraycopy(ids, pos + 1, ids, pos, idCount - pos - 1);
+                idCount--;
+            }
+        }
+
+        boolean hasTop(long id) {
+            return Arrays.binarySearch(top, 0, topCount, id) >= 0;
+        }
+
+        void addTop(long id) {
+            int pos = Arrays.binarySearch(top, 0, topCount, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (pos >= TOP_K) {
+                return;
+            }
+            if (topCount == top.length) {
+                top = Arrays.copyOf(top, Math.min(Math.max(1, topCount * 2), TOP_K));
+            }
+            int moved = Math.min(topCount, TOP_K - 1) - pos;
+            System.arraycopy(top, pos, top, pos + 1, moved);
+            top[pos] = id;
+            topCount = Math.min(topCount + 1, TOP_K);
+        }
+
+        void copyTop(Node other) {
+            top = Arrays.copyOf(other.top, other.topCount);
+            topCount = other.topCount;
+        }
+
+        // Refaz a lista a partir dos ids próprios e das listas dos filhos; só acontece em remoção
+        void recomputeTop() {
+            int total = idCount;
+            for (int i = 0; i < childCount; i++) {
+                total += children[i].topCount;
+            }
+            long[] all = Arrays.copyOf(ids, total);
+            int n = idCount;
+            for (int i = 0; i < childCount; i++) {
+                System.arraycopy(children[i].top, 0, all, n, children[i].topCount);
+                n += children[i].topCount;
+            }
+            Arrays.sort(all);
+            top = new long[Math.min(total, TOP_K)];
+            topCount = 0;
+            for (int i = 0; i < total && topCount < TOP_K; i++) {
+                if (topCount == 0 || top[topCount - 1] != all[i]) {
+                    top[topCount++] = all[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.devsuperior.dscommerce.services.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.projections.ProductPriceProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/*
+ * Arrays paralelos de preço e id ordenados por (preço, id).
+ * Consultas por faixa de preço são duas buscas binárias sobre o array de preços.
+ */
+@Component
+public class ProductPriceIndex {
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Double> priceById = new HashMap<>();
+    private final IndexVersions versions = new IndexVersions();
+    private double[] prices = new double[16];
+    private long[] ids = new long[16];
+    private int size;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild(repository.searchAllPrices());
+    }
+
+    public void rebuild(List<ProductPriceProjection> rows) {
+        lock.writeLock().lock();
+        try {
+            List<ProductPriceProjection> sorted = new ArrayList<>();
+            for (ProductPriceProjection row : rows) {
+                if (row.getPrice() != null) {
+                    sorted.add(row);
+                }
+            }
+            sorted.sort((a, b) -> compare(a.getPrice(), a.getId(), b.getPrice(), b.getId()));
+            priceById.clear();
+            versions.clear();
+            prices = new double[Math.max(16, sorted.size())];
+            ids = new long[prices.length];
+            size = 0;
+            for (ProductPriceProjection row : sorted) {
+                prices[size] = row.getPrice();
+                ids[size] = row.getId();
+                priceById.put(row.getId(), row.getPrice());
+                size++;
+            }
+            ready = true;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(Long id, Integer version, Double price) {
+        lock.writeLock().lock();
+        try {
+            if (!versions.accept(id, version)) {
+                return;
+            }
+            delete(id);
+            if (price == null) {
+                return;
+            }
+            if (size == prices.length) {
+                prices = Arrays.copyOf(prices, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            int pos = -position(price, id) - 1;
+            System.arraycopy(prices, pos, prices, pos + 1, size - pos);
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            prices[pos] = price;
+            ids[pos] = id;
+            size++;
+            priceById.put(id, price);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Várias escritas de uma vez: os novos pares são ordenados e intercalados com os arrays em uma única passada
+    public void putAll(Collection<ProductIndexEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            Map<Long, ProductIndexEntry> accepted = new LinkedHashMap<>();
+            for (ProductIndexEntry entry : entries) {
+                if (versions.accept(entry.getId(), entry.getVersion())) {
+                    accepted.put(entry.getId(), entry);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return;
+            }
+            Set<Long> replaced = new HashSet<>();
+            List<ProductIndexEntry> added = new ArrayList<>();
+            for (ProductIndexEntry entry : accepted.values()) {
+                if (priceById.remove(entry.getId()) != null) {
+                    replaced.add(entry.getId());
+                }
+                if (entry.getPrice() != null) {
+                    added.add(entry);
+                    priceById.put(entry.getId(), entry.getPrice());
+                }
+            }
+            added.sort((a, b) -> compare(a.getPrice(), a.getId(), b.getPrice(), b.getId()));
+
+            double[] newPrices = new double[Math.max(16, size - replaced.size() + added.size())];
+            long[] newIds = new long[newPrices.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < size || j < added.size()) {
+                if (i < size && replaced.contains(ids[i])) {
+                    i++;
+                }
+                else if (j == added.size() || (i < size
+                        && compare(prices[i], ids[i], added.get(j).getPrice(), added.get(j).getId()) < 0)) {
+                    newPrices[k] = prices[i];
+                    newIds[k++] = ids[i++];
+                }
+                else {
+                    newPrices[k] = added.get(j).getPrice();
+                    newIds[k++] = added.get(j++).getId();
+                }
+            }
+            prices = newPrices;
+            ids = newIds;
+            size = k;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            delete(id);
+            versions.removed(id);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids com preço em [minPrice, maxPrice], ordenados por preço; limites nulos não restringem
+    public List<Long> range(Double minPrice, Double maxPrice, boolean ascending) {
+        lock.readLock().lock();
+        try {
+            int from = (minPrice == null) ? 0 : lowerBound(minPrice);
+            int to = (maxPrice == null) ? size : upperBound(maxPrice);
+            List<Long> result = new ArrayList<>(Math.max(to - from, 0));
+            if (ascending) {
+                for (int i = from; i < to; i++) {
+                    result.add(ids[i]);
+                }
+            }
+            else {
+                for (int i = to - 1; i >= from; i--) {
+                    result.add(ids[i]);
+                }
+            }
+            return result;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public IdBitmap rangeBitmap(Double minPrice, Double maxPrice) {
+        return IdBitmap.of(range(minPrice, maxPrice, true));
+    }
+
+    private void delete(Long id) {
+        Double price = priceById.remove(id);
+        if (price == null) {
+            return;
+        }
+        int pos = position(price, id);
+        if (pos >= 0) {
+            System.arraycopy(prices, pos + 1, prices, pos, size - pos - 1);
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+        }
+    }
+
+    private int position(double price, long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(prices[mid], ids[mid], price, id);
+            if (cmp < 0) {
+                low = mid + 1;
+            }
+            else if (cmp > 0) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    // Primeira posição com preço >= value
+    private int lowerBound(double value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] < value) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Primeira posição com preço > value
+    private int upperBound(double value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] <= value) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(double priceA, long idA, double priceB, long idB) {
+        int cmp = Double.compare(priceA, priceB);
+        return (cmp != 0) ? cmp : Long.compare(idA, idB);
+    }
+}
@@ -0,0 +1,74 @@
+package com.devsuperior.dscommerce.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+
+public class CsvUtil {
+
+    // Divide um registro CSV em campos, aceitando aspas duplas com "" como escape
+    public static List<String> parseLine(String line) {
+        List<String> result = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                }
+                else if (c == '"') {
+                    quoted = false;
+                }
+                else {
+                    field.append(c);
+                }
+            }
+            else if (c == '"') {
+                quoted = true;
+            }
+            else if (c == ',') {
+                result.add(field.toString());
+                field.setLength(0);
+            }
+            else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new BadRequestException("Aspas não fechadas");
+        }
+        result.add(field.toString());
+        return result;
+    }
+
+    // Estado das aspas ao fim do texto, partindo de quoted; com "" como escape, cada aspa alterna o estado
+    public static boolean insideQuotes(String text, boolean quoted) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return quoted;
+    }
+
+    // Monta uma linha CSV, colocando entre aspas os campos com vírgula, aspas ou quebra de linha
+    public static String formatLine(List<String> fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            String field = (fields.get(i) == null) ? "" : fields.get(i);
+            if (i > 0) {
+                line.append(',');
+            }
+            if (field.contains(",") || field.contains("\"") || field.contains("\n") || field.contains("\r")) {
+                line.append('"').append(field.replace("\"", "\"\"")).append('"');
+            }
+            else {
+                line.append(field);
+            }
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package com.devsuperior.dscommerce.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+
+public class CursorUtil {
+
+    private static final String SEPARATOR = "\n";
+
+    public static String encode(String... parts) {
+        String raw = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String token, int size) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, size);
+            if (parts.length != size) {
+                throw new BadRequestException("Cursor inválido");
+            }
+            return parts;
+        }
+        catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+}
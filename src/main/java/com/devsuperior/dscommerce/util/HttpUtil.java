@@ -0,0 +1,43 @@
+package com.devsuperior.dscommerce.util;
+
+import java.util.Locale;
+
+public class HttpUtil {
+
+    // Lê o Accept-Encoding com q-values: "gzip;q=0" recusa, e "*" vale para gzip quando ele não aparece na lista
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String item : acceptEncoding.split(",")) {
+            String[] parts = item.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (param.startsWith("q=")) {
+                    q = quality(param.substring(2).trim());
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = q;
+            }
+            else if (coding.equals("*")) {
+                any = q;
+            }
+        }
+        double q = (gzip != null) ? gzip : (any != null) ? any : 0.0;
+        return q > 0;
+    }
+
+    private static double quality(String value) {
+        try {
+            return Double.parseDouble(value);
+        }
+        catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+}
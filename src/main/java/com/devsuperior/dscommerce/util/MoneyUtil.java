@@ -0,0 +1,13 @@
+package com.devsuperior.dscommerce.util;
+
+// Valores monetários persistidos como centavos inteiros, sem acúmulo de erro de ponto flutuante
+public class MoneyUtil {
+
+    public static Long toCents(Double value) {
+        return (value == null) ? null : Math.round(value * 100);
+    }
+
+    public static Double fromCents(Long cents) {
+        return (cents == null) ? null : cents / 100.0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.devsuperior.dscommerce.controllersIT;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class CategoryControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test //200
+    public void findAllShouldReturnCategoriesWithEtag() throws Exception {
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/categories")
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().exists("ETag"));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(1L));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[0].productCount").value(2));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[2].productCount").value(23));
+    }
+
+    @Test //304
+    public void findAllShouldReturnNotModifiedWhenEtagMatches() throws Exception {
+
+        String etag = mockMvc
+            .perform(MockMvcRequestBuilders.get("/categories")
+            .accept(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getHeader("ETag");
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/categories")
+            .header("If-None-Match", etag)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isNotModified());
+    }
+}
@@ -2,12 +2,15 @@ package com.devsuperior.dscommerce.controllersIT;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.MethodMode;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -15,9 +18,13 @@ import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscommerce.dto.OrderDTO;
 import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.entities.User;
 import com.devsuperior.dscommerce.tests.OrderFactory;
+import com.devsuperior.dscommerce.tests.ProductFactory;
 import com.devsuperior.dscommerce.tests.TokenUtil;
 import com.devsuperior.dscommerce.tests.UserFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,7 +45,8 @@ public class OrderControllerIT {
 
     private User clientUser, adminUser;
     @SuppressWarnings("unused")
-    private Order orderAdmin, orderClient;
+    private Order orderAdmin;
+    private Order orderClient;
     private String adminToken, clientToken, invalidToken;
     private Long existingClientOrderId, existingAdminOrderId, nonExistingId;
     
@@ -58,6 +66,189 @@ public class OrderControllerIT {
         orderClient = OrderFactory.createOrder(clientUser);
     }
 
+    @Test // 201
+    public void insertShouldReturnOrderDTOCreatedWithCurrentProductPriceWhenClientLogged() throws Exception {
+
+        String jsonBody = objectMapper.writeValueAsString(new OrderDTO(orderClient));
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/orders")
+            .header("Authorization", "Bearer " + clientToken)
+            .content(jsonBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isCreated());
+        result.andExpect(jsonPath("$.status").value("WAITING_PAYMENT"));
+        result.andExpect(jsonPath("$.items[0].productId").value(1L));
+        result.andExpect(jsonPath("$.items[0].price").value(90.5));
+        result.andExpect(jsonPath("$.total").value(181.0));
+    }
+
+    @Test // 201
+    public void insertShouldReplayCreatedOrderWhenIdempotencyKeyRepeats() throws Exception {
+
+        String jsonBody = objectMapper.writeValueAsString(new OrderDTO(orderClient));
+
+        String first = mockMvc.perform(MockMvcRequestBuilders.post("/orders")
+            .header("Authorization", "Bearer " + clientToken)
+            .header("Idempotency-Key", "retry-test-1")
+            .content(jsonBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readTree(first).get("id").asLong();
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/orders")
+            .header("Authorization", "Bearer " + clientToken)
+            .header("Idempotency-Key", "retry-test-1")
+            .content(jsonBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isCreated());
+        result.andExpect(jsonPath("$.id").value(id));
+        result.andExpect(MockMvcResultMatchers.header().string("Location", "http://localhost/orders/" + id));
+    }
+
+    @Test // 400
+    public void insertShouldReturnBadRequestWhenIdempotencyKeyReusedWithOtherItems() throws Exception {
+
+        String jsonBody = objectMapper.writeValueAsString(new OrderDTO(orderClient));
+        mockMvc.perform(MockMvcRequestBuilders.post("/orders")
+            .header("Authorization", "Bearer " + clientToken)
+            .header("Idempotency-Key", "retry-test-2")
+            .content(jsonBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        Product product = ProductFactory.createProduct();
+        product.setId(2L);
+        orderClient.getItems().add(new OrderItem(orderClient, product, 1, 10.0));
+        jsonBody = objectMapper.writeValueAsString(new OrderDTO(orderClient));
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/orders")
+            .header("Authorization", "Bearer " + clientToken)
+            .header("Idempotency-Key", "retry-test-2")
+            .content(jsonBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test // 202
+    @DirtiesContext(methodMode = MethodMode.AFTER_METHOD) // As threads de escrita gravam fora da transação do teste
+    public void insertShouldAcceptWhenRespondAsyncIsOneOfSeveralPreferences() throws Exception {
+
+        String jsonBody = objectMapper.writeValueAsString(new OrderDTO(orderClient));
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/orders")
+            .header("Authorization", "Bearer " + clientToken)
+            .header("Prefer", "return=minimal, respond-async; wait=5")
+            .content(jsonBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isAccepted());
+        result.andExpect(MockMvcResultMatchers.header().string("Preference-Applied", "respond-async"));
+    }
+
+    @Test // 202
+    @DirtiesContext(methodMode = MethodMode.AFTER_METHOD) // As threads de escrita gravam fora da transação do teste
+    public void insertShouldAcceptAndWriteOrderLaterWhenRespondAsyncPreferred() throws Exception {
+
+        String jsonBody = objectMapper.writeValueAsString(new OrderDTO(orderClient));
+
+        String location = mockMvc.perform(MockMvcRequestBuilders.post("/orders")
+            .header("Authorization", "Bearer " + clientToken)
+            .header("Prefer", "respond-async")
+            .content(jsonBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isAccepted())
+            .andExpect(jsonPath("$.status").exists())
+            .andReturn().getResponse().getHeader("Location");
+
+        String status = "PENDING";
+        for (int i = 0; i < 100 && status.equals("PENDING"); i++) {
+            Thread.sleep(50);
+            String body = mockMvc.perform(MockMvcRequestBuilders.get(location)
+                .header("Authorization", "Bearer " + clientToken)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            status = objectMapper.readTree(body).get("status").asText();
+        }
+
+        Assertions.assertEquals("CREATED", status);
+    }
+
+    @Test // 404
+    public void insertShouldReturnNotFoundWhenProductIdDoesNotExist() throws Exception {
+
+        Product product = ProductFactory.createProduct();
+        product.setId(nonExistingId);
+        orderClient.getItems().add(new OrderItem(orderClient, product, 1, 10.0));
+        String jsonBody = objectMapper.writeValueAsString(new OrderDTO(orderClient));
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/orders")
+            .header("Authorization", "Bearer " + clientToken)
+            .content(jsonBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test // 200
+    public void findMineShouldReturnOwnOrderSummariesNewestFirstWithCursor() throws Exception {
+
+        String next = mockMvc.perform(MockMvcRequestBuilders.get("/orders/me?size=1")
+            .header("Authorization", "Bearer " + clientToken)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(jsonPath("$.content[0].id").value(3L))
+            .andExpect(jsonPath("$.content[0].total").value(90.5))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andReturn().getResponse().getContentAsString();
+        String after = objectMapper.readTree(next).get("next").asText();
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/orders/me?size=1&after={after}", after)
+            .header("Authorization", "Bearer " + clientToken)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(jsonPath("$.content[0].id").value(existingClientOrderId));
+        result.andExpect(jsonPath("$.content[0].total").value(1431.0));
+        result.andExpect(jsonPath("$.content[0].itemCount").value(2));
+        result.andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test // 200
+    public void findSummariesShouldReturnAllClientsOrdersWhenAdminLogged() throws Exception {
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/orders")
+            .header("Authorization", "Bearer " + adminToken)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(jsonPath("$.content.length()").value(3));
+        result.andExpect(jsonPath("$.content[1].id").value(existingAdminOrderId));
+        result.andExpect(jsonPath("$.content[1].clientId").value(2L));
+    }
+
+    @Test // 403
+    public void findSummariesShouldReturnForbiddenWhenClientLogged() throws Exception {
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/orders")
+            .header("Authorization", "Bearer " + clientToken)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+
     @Test // 200
     public void findByIdShouldReturnOrderDTOWhenExistingIdAdminLogged() throws Exception {
         
@@ -1,11 +1,20 @@
 package com.devsuperior.dscommerce.controllersIT;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.MethodMode;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -16,10 +25,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.services.cache.ProductCache;
 import com.devsuperior.dscommerce.tests.ProductFactory;
 import com.devsuperior.dscommerce.tests.TokenUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 @SpringBootTest
 @AutoConfigureMockMvc
 @Transactional
@@ -34,11 +47,17 @@ public class ProductControllerIT {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ProductCache productCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private Product product;
     private ProductDTO productDTO;
     private String productName;
     private String adminToken, clientToken, invalidToken;
-    private Long existingId, nonExistingId, dependentId;
+    private Long existingId, nonExistingId, dependentId, independentId;
 
     @BeforeEach
     void setUp() throws Exception {
@@ -47,6 +66,7 @@ public class ProductControllerIT {
         existingId = 1L; // Existente no DB
         nonExistingId = 100L; // Não existe no DB
         dependentId = 3L; // Tal qual o DB
+        independentId = 2L; // Sem itens de pedido
         adminToken = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "123456");
         clientToken = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
         invalidToken = adminToken + "8564";
@@ -57,7 +77,7 @@ public class ProductControllerIT {
     @Test // 204
     public void deleteShouldReturnNoContentWhenExistingIdAndAdminLogged() throws Exception {
         
-        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.delete("/products/{id}", existingId)
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.delete("/products/{id}", independentId)
             .header("Authorization", "Bearer " + adminToken)
             .accept(MediaType.APPLICATION_JSON))
             .andDo(MockMvcResultHandlers.print());
@@ -88,6 +108,22 @@ public class ProductControllerIT {
         result.andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
 
+    @Test //200
+    public void deleteAllShouldDeleteFreeIdsAndReportTheOthersWhenAdminLogged() throws Exception {
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.delete("/products")
+            .param("ids", "1", "2", "3", "100")
+            .header("Authorization", "Bearer " + adminToken)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.deleted").value(1));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.notFound[0]").value(100));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.integrityViolations.length()").value(2));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.integrityViolations[0]").value(1));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.integrityViolations[1]").value(3));
+    }
+
     @Test //403
     public void deleteShouldReturnForbiddenWhenExitingIdClientLogged() throws Exception {
 
@@ -110,6 +146,353 @@ public class ProductControllerIT {
         result.andExpect(MockMvcResultMatchers.status().isUnauthorized());
     }
 
+    @Test //200
+    public void findByIdShouldReturnProductDTOWithCategoriesWhenExistingId() throws Exception {
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products/{id}", 2L)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.name").value("Smart TV"));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.categories.length()").value(2));
+    }
+
+    @Test //304
+    public void findByIdShouldReturnNotModifiedWhenEtagMatches() throws Exception {
+
+        String etag = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products/{id}", existingId)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().exists("Last-Modified"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products/{id}", existingId)
+            .header("If-None-Match", etag)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isNotModified());
+        result.andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test //304
+    public void findByIdShouldAnswerConditionalGetWithoutQueryingDatabase() throws Exception {
+
+        String etag = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products/{id}", existingId)
+            .accept(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getHeader("ETag");
+        productCache.evict(existingId);
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+
+        try {
+            ResultActions result = mockMvc
+                .perform(MockMvcRequestBuilders.get("/products/{id}", existingId)
+                .header("If-None-Match", etag)
+                .accept(MediaType.APPLICATION_JSON));
+
+            result.andExpect(MockMvcResultMatchers.status().isNotModified());
+            Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        }
+        finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test //200
+    public void updateShouldIncrementVersionWhenIfMatchIsCurrent() throws Exception {
+
+        productDTO = new ProductDTO(product);
+        String jsonBody = objectMapper.writeValueAsString(productDTO);
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.put("/products/{id}", independentId)
+            .header("Authorization", "Bearer " + adminToken)
+            .header("If-Match", "\"p2-v0\"")
+            .content(jsonBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.version").value(1));
+        result.andExpect(MockMvcResultMatchers.header().string("ETag", "\"p2-v1\""));
+    }
+
+    @Test //412
+    public void updateShouldReturnPreconditionFailedWhenIfMatchIsStale() throws Exception {
+
+        productDTO = new ProductDTO(product);
+        String jsonBody = objectMapper.writeValueAsString(productDTO);
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.put("/products/{id}", independentId)
+            .header("Authorization", "Bearer " + adminToken)
+            .header("If-Match", "\"p2-v5\"")
+            .content(jsonBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test //200
+    @DirtiesContext(methodMode = MethodMode.AFTER_METHOD) // A importação consome ids do banco
+    public void importShouldInsertValidRowsAndReportInvalidOnesWhenNdjson() throws Exception {
+
+        String body = "{\"name\": \"Console\", \"description\": \"Console de nova geração\", \"price\": 3999.0, \"categories\": [{\"id\": 1}]}\n"
+            + "{\"name\": \"X\", \"description\": \"Descrição válida\", \"price\": 10.0, \"categories\": [{\"id\": 1}]}\n"
+            + "isto não é json\n"
+            + "{\"name\": \"Headset\", \"description\": \"Headset sem fio\", \"price\": 299.0, \"categories\": [{\"id\": 99}]}\n";
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/products/import")
+            .header("Authorization", "Bearer " + adminToken)
+            .contentType("application/x-ndjson")
+            .content(body)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(1));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(3));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(2));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].message").value("JSON inválido"));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.errors[2].message").value("Categoria não encontrada: 99"));
+    }
+
+    @Test //200
+    @DirtiesContext(methodMode = MethodMode.AFTER_METHOD) // A importação consome ids do banco
+    public void importShouldInsertRowsWhenCsv() throws Exception {
+
+        String body = "name,description,price,imgUrl,categories\n"
+            + "Console,\"Console, controle e cabo\",3999.0,,1|3\n"
+            + "Headset,Headset sem fio,abc,,1\n";
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/products/import")
+            .header("Authorization", "Bearer " + adminToken)
+            .contentType("text/csv")
+            .content(body)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(1));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(3));
+    }
+
+    @Test //200
+    @DirtiesContext(methodMode = MethodMode.AFTER_METHOD) // A importação consome ids do banco
+    public void importShouldAcceptCsvExportWithMultiLineDescription() throws Exception {
+
+        product.setDescription("Primeira linha\nSegunda, com \"aspas\"");
+        productDTO = new ProductDTO(product);
+        mockMvc.perform(MockMvcRequestBuilders.post("/products")
+            .header("Authorization", "Bearer " + adminToken)
+            .content(objectMapper.writeValueAsString(productDTO))
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        String csv = mockMvc.perform(MockMvcRequestBuilders.get("/products/export").param("format", "csv"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/products/import")
+            .header("Authorization", "Bearer " + adminToken)
+            .contentType("text/csv")
+            .content(csv)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(26));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(0));
+    }
+
+    @Test //403
+    public void importShouldReturnForbiddenWhenClientLogged() throws Exception {
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/products/import")
+            .header("Authorization", "Bearer " + clientToken)
+            .contentType("text/csv")
+            .content("name,description,price,imgUrl,categories\n"));
+
+        result.andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+
+    @Test //200
+    public void adjustPriceShouldUpdateProductsOfCategoryWhenAdminLogged() throws Exception {
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.put("/products/bulk/price")
+            .header("Authorization", "Bearer " + adminToken)
+            .content("{\"categoryId\": 1, \"percent\": 10.0}")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.affected").value(2));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/products?name=Lord")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].price").value(99.55));
+    }
+
+    @Test //404
+    public void adjustPriceShouldReturnNotFoundWhenCategoryDoesNotExist() throws Exception {
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.put("/products/bulk/price")
+            .header("Authorization", "Bearer " + adminToken)
+            .content("{\"categoryId\": 100, \"percent\": 10.0}")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test //200
+    public void reassignCategoriesShouldReturnCountOfExistingProductsWhenAdminLogged() throws Exception {
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.put("/products/bulk/categories")
+            .header("Authorization", "Bearer " + adminToken)
+            .content("{\"productIds\": [1, 5, 100], \"categoryIds\": [2, 3]}")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.affected").value(2));
+    }
+
+    @Test //422
+    public void reassignCategoriesShouldReturnUnprocessableEntityWhenNoCategories() throws Exception {
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.put("/products/bulk/categories")
+            .header("Authorization", "Bearer " + adminToken)
+            .content("{\"productIds\": [1], \"categoryIds\": []}")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test //403
+    public void adjustPriceShouldReturnForbiddenWhenClientLogged() throws Exception {
+
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.put("/products/bulk/price")
+            .header("Authorization", "Bearer " + clientToken)
+            .content("{\"categoryId\": 1, \"percent\": 10.0}")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+
+    @Test //200
+    public void exportShouldStreamEveryProductWithCategoriesAsNdjson() throws Exception {
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.get("/products/export"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        Assertions.assertEquals(25, lines.length);
+        ProductDTO second = objectMapper.readValue(lines[1], ProductDTO.class);
+        Assertions.assertEquals("Smart TV", second.getName());
+        Assertions.assertEquals(2, second.getCategories().size());
+    }
+
+    @Test //200
+    public void exportShouldCompressCsvWhenClientAcceptsGzip() throws Exception {
+
+        byte[] body = mockMvc.perform(MockMvcRequestBuilders.get("/products/export")
+            .param("format", "csv")
+            .header("Accept-Encoding", "gzip"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().string("Content-Encoding", "gzip"))
+            .andExpect(MockMvcResultMatchers.header().string("Vary", "Accept-Encoding"))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        String[] lines = csv.split("\n");
+        Assertions.assertEquals(26, lines.length);
+        Assertions.assertEquals("id,name,description,price,imgUrl,categories", lines[0]);
+        Assertions.assertTrue(lines[2].startsWith("2,Smart TV,\"Lorem ipsum"));
+        Assertions.assertTrue(lines[2].endsWith(",2|3"));
+    }
+
+    @Test //200
+    public void exportShouldNotCompressWhenClientRefusesGzip() throws Exception {
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.get("/products/export")
+            .param("format", "csv")
+            .header("Accept-Encoding", "gzip;q=0, identity"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().doesNotExist("Content-Encoding"))
+            .andExpect(MockMvcResultMatchers.header().string("Vary", "Accept-Encoding"))
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        Assertions.assertTrue(body.startsWith("id,name,description,price,imgUrl,categories"));
+    }
+
+    @Test //200
+    public void findAllShouldServeCachedBodyOnSecondRequest() throws Exception {
+
+        String first = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products?size=7")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().string("X-Cache", "MISS"))
+            .andReturn().getResponse().getContentAsString();
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products?size=7")
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().string("X-Cache", "HIT"));
+        result.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        result.andExpect(MockMvcResultMatchers.content().string(first));
+    }
+
+    @Test //200
+    public void findAllShouldServeCachedGzipBodyWhenAccepted() throws Exception {
+
+        String first = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products?size=9")
+            .accept(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getContentAsString();
+
+        byte[] body = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products?size=9")
+            .header("Accept-Encoding", "gzip")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().string("X-Cache", "HIT"))
+            .andExpect(MockMvcResultMatchers.header().string("Content-Encoding", "gzip"))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        String json = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        Assertions.assertEquals(first, json);
+    }
+
+    @Test //200
+    public void findAllShouldBypassResponseCacheWhenNameParamIsNotEmpty() throws Exception {
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products?name={productName}", productName)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.header().doesNotExist("X-Cache"));
+    }
+
+    @Test //404
+    public void findByIdShouldReturnNotFoundWhenNonExistingId() throws Exception {
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products/{id}", nonExistingId)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
     @Test //200
     public void findAllShouldReturnPageWhenNameParamIsNotEmpty() throws Exception {
 
@@ -136,6 +519,113 @@ public class ProductControllerIT {
         result.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].price").value(90.5));
     }
 
+    @Test //200
+    public void findAllShouldFilterByCategoryAndName() throws Exception {
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products?categoryId=1&name=rails")
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(1));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value(5L));
+    }
+
+    @Test //200
+    public void findAllShouldReturnProductsInAllCategoriesWhenSeveralCategoryIds() throws Exception {
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products?categoryId=2&categoryId=3")
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(1));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("Smart TV"));
+    }
+
+    @Test //200
+    public void findAllShouldFilterByCategoryWhenSortNotServedByIndex() throws Exception {
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products?categoryId=1&sort=price,desc")
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(2));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value(5L));
+    }
+
+    @Test //200
+    public void findAllShouldFilterByPriceRangeSortedByPrice() throws Exception {
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products?minPrice=1250&maxPrice=1350&sort=price")
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(5));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].price").value(1250.0));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.content[4].price").value(1350.0));
+    }
+
+    @Test //200
+    public void suggestShouldReturnNamesWithWordStartingWithPrefix() throws Exception {
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products/suggest?prefix=mac")
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(3L));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Macbook Pro"));
+    }
+
+    @Test //200
+    public void findSliceShouldReturnSliceWithoutTotals() throws Exception {
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products/slice?name={productName}", productName)
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value(3L));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.last").value(true));
+        result.andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test //200
+    public void findAllAfterShouldReturnNextPageFromCursor() throws Exception {
+
+        ResultActions first = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products/cursor?size=2")
+            .accept(MediaType.APPLICATION_JSON));
+
+        first.andExpect(MockMvcResultMatchers.status().isOk());
+        first.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value(1L));
+        first.andExpect(MockMvcResultMatchers.jsonPath("$.content[1].id").value(2L));
+        first.andExpect(MockMvcResultMatchers.jsonPath("$.hasNext").value(true));
+
+        String next = objectMapper.readTree(first.andReturn().getResponse().getContentAsString()).get("next").asText();
+
+        ResultActions second = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products/cursor?size=2&after={next}", next)
+            .accept(MediaType.APPLICATION_JSON));
+
+        second.andExpect(MockMvcResultMatchers.status().isOk());
+        second.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value(3L));
+    }
+
+    @Test //400
+    public void findAllAfterShouldReturnBadRequestWhenInvalidCursor() throws Exception {
+
+        ResultActions result = mockMvc
+            .perform(MockMvcRequestBuilders.get("/products/cursor?after=invalido")
+            .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test //201
     public void insertShouldReturnProductDTOCreatedWhenAdminLogged() throws Exception {
 
@@ -0,0 +1,71 @@
+package com.devsuperior.dscommerce.repositoriesIT;
+
+import java.time.Instant;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.repositories.OrderRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@SpringBootTest
+@Transactional
+public class OrderRepositoryIT {
+
+    @Autowired
+    private OrderRepository repository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void searchByIdWithItemsShouldUseOneStatementRegardlessOfItemCount() {
+
+        Order order = new Order(null, Instant.now(), OrderStatus.WAITING_PAYMENT, entityManager.getReference(User.class, 1L), null);
+        entityManager.persist(order);
+        for (long productId = 1; productId <= 20; productId++) {
+            entityManager.persist(new OrderItem(order, entityManager.getReference(Product.class, productId), 1, 10.0));
+        }
+        entityManager.flush();
+
+        Assertions.assertEquals(1, statementsToLoad(2L)); // 1 item
+        Assertions.assertEquals(1, statementsToLoad(1L)); // 2 itens
+        Assertions.assertEquals(1, statementsToLoad(order.getId())); // 20 itens
+    }
+
+    private long statementsToLoad(Long id) {
+        entityManager.clear();
+        statistics.clear();
+        OrderDTO dto = new OrderDTO(repository.searchByIdWithItems(id).get());
+        Assertions.assertFalse(dto.getItems().isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -10,11 +10,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.CategorySummaryDTO;
 import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.repositories.CategoryRepository;
+import com.devsuperior.dscommerce.services.cache.CatalogVersions;
+import com.devsuperior.dscommerce.services.index.ProductCategoryIndex;
 import com.devsuperior.dscommerce.tests.CategoryFactory;
 
 @ExtendWith(SpringExtension.class)
@@ -26,6 +29,12 @@ public class CategoryServiceTests {
     @Mock
     private CategoryRepository repository;
 
+    @Mock
+    private ProductCategoryIndex categoryIndex;
+
+    @Mock
+    private CatalogVersions versions;
+
     private Category category;
     private List<Category> list;
 
@@ -35,17 +44,37 @@ public class CategoryServiceTests {
         list = new ArrayList<>();
         list.add(category);
 
-        Mockito.when(repository.findAll()).thenReturn(list);
+        Mockito.when(repository.findAll(Sort.by("id"))).thenReturn(list);
     }
 
     @Test
     public void findAllShoudReturnListCategoryDTO() {
 
-        List<CategoryDTO> result = service.findAll();
+        List<CategorySummaryDTO> result = service.findAll();
 
         Assertions.assertEquals(result.size(), 1);
         Assertions.assertEquals(result.get(0).getId(), category.getId());
         Assertions.assertEquals(result.get(0).getName(), category.getName());
+        Assertions.assertEquals(result.get(0).getProductCount(), 0);
+    }
+
+    @Test
+    public void findAllShouldReturnSameSnapshotUntilCountsChange() {
+
+        List<CategorySummaryDTO> first = service.findAll();
+        Mockito.when(categoryIndex.isReady()).thenReturn(true);
+
+        service.refreshCounts();
+        Assertions.assertSame(first, service.findAll());
+
+        Mockito.when(categoryIndex.count(category.getId())).thenReturn(3);
+        service.refreshCounts();
+
+        List<CategorySummaryDTO> result = service.findAll();
+        Assertions.assertNotSame(first, result);
+        Assertions.assertEquals(result.get(0).getProductCount(), 3);
+        Mockito.verify(repository, Mockito.times(1)).findAll(Sort.by("id"));
+        Mockito.verify(versions, Mockito.times(2)).touchCategories();
     }
-    
+
 }
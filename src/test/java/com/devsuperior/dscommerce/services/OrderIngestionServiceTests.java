@@ -0,0 +1,165 @@
+package com.devsuperior.dscommerce.services;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderTicketDTO;
+import com.devsuperior.dscommerce.dto.OrderTicketStatus;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.repositories.UserRepository;
+import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.services.exceptions.ServiceUnavailableException;
+import com.devsuperior.dscommerce.services.exceptions.TooManyRequestsException;
+import com.devsuperior.dscommerce.tests.OrderFactory;
+import com.devsuperior.dscommerce.tests.UserFactory;
+import com.devsuperior.dscommerce.util.CustomUserUtil;
+
+public class OrderIngestionServiceTests {
+
+    private OrderIngestionService service;
+    private OrderService orderService;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private CustomUserUtil userUtil;
+
+    private User client;
+    private OrderDTO orderDTO;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        orderService = Mockito.mock(OrderService.class);
+        userRepository = Mockito.mock(UserRepository.class);
+        transactionTemplate = Mockito.mock(TransactionTemplate.class);
+        userUtil = Mockito.mock(CustomUserUtil.class);
+        service = new OrderIngestionService(orderService, userRepository, transactionTemplate, userUtil, 2, 1, 50, 60, 100, 5);
+
+        client = UserFactory.createClientUser();
+        Order order = OrderFactory.createOrder(client);
+        orderDTO = new OrderDTO(order);
+
+        Mockito.when(userUtil.getLoggedUsername()).thenReturn(client.getEmail());
+        Mockito.when(userRepository.findByEmail(client.getEmail())).thenReturn(Optional.of(client));
+        Mockito.when(transactionTemplate.execute(any())).thenAnswer(x -> ((TransactionCallback<Object>) x.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    public void submitShouldReturnPendingTicketWithoutWriting() {
+
+        OrderTicketDTO ticket = service.submit(orderDTO);
+
+        Assertions.assertEquals(ticket.getStatus(), OrderTicketStatus.PENDING);
+        Mockito.verifyNoInteractions(orderService);
+    }
+
+    @Test
+    public void submitShouldThrowTooManyRequestsExceptionWhenQueueIsFull() {
+
+        service.submit(orderDTO);
+        service.submit(orderDTO);
+
+        Assertions.assertThrows(TooManyRequestsException.class, () -> {
+            service.submit(orderDTO);
+        });
+    }
+
+    @Test
+    public void flushShouldWriteQueuedOrdersInOneTransaction() {
+
+        Mockito.when(orderService.insertAll(any(), any())).thenReturn(List.of(orderDTO, orderDTO));
+        OrderTicketDTO first = service.submit(orderDTO);
+        OrderTicketDTO second = service.submit(orderDTO);
+
+        service.flush();
+
+        Assertions.assertEquals(service.status(first.getId()).getStatus(), OrderTicketStatus.CREATED);
+        Assertions.assertEquals(service.status(second.getId()).getOrderId(), orderDTO.getId());
+        Mockito.verify(transactionTemplate, Mockito.times(1)).execute(any());
+        Mockito.verify(userRepository, Mockito.times(1)).findByEmail(client.getEmail());
+    }
+
+    @Test
+    public void flushShouldRetryEachOrderWhenGroupFails() {
+
+        OrderDTO invalid = new OrderDTO(OrderFactory.createOrder(client));
+        Mockito.when(orderService.insertAll(any(), any())).thenAnswer(x -> {
+            List<OrderDTO> dtos = x.getArgument(1);
+            if (dtos.contains(invalid)) {
+                throw new ResourceNotFoundException("Produto não encontrado: [100]");
+            }
+            return dtos;
+        });
+        OrderTicketDTO valid = service.submit(orderDTO);
+        OrderTicketDTO rejected = service.submit(invalid);
+
+        service.flush();
+
+        Assertions.assertEquals(service.status(valid.getId()).getStatus(), OrderTicketStatus.CREATED);
+        Assertions.assertEquals(service.status(rejected.getId()).getStatus(), OrderTicketStatus.FAILED);
+        Assertions.assertEquals(service.status(rejected.getId()).getMessage(), "Produto não encontrado: [100]");
+    }
+
+    @Test
+    public void flushShouldNotExposeDatabaseErrorInTicket() {
+
+        Mockito.when(orderService.insertAll(any(), any())).thenThrow(
+                new DataIntegrityViolationException("could not execute statement [insert into tb_order ...]"));
+        OrderTicketDTO ticket = service.submit(orderDTO);
+
+        service.flush();
+
+        Assertions.assertEquals(service.status(ticket.getId()).getStatus(), OrderTicketStatus.FAILED);
+        Assertions.assertEquals(service.status(ticket.getId()).getMessage(), "Não foi possível gravar o pedido");
+    }
+
+    @Test
+    public void stopShouldWriteAcceptedOrdersAndRefuseNewOnes() {
+
+        Mockito.when(orderService.insertAll(any(), any())).thenAnswer(x -> x.getArgument(1));
+        OrderTicketDTO first = service.submit(orderDTO);
+        OrderTicketDTO second = service.submit(orderDTO);
+
+        service.stop();
+
+        Assertions.assertEquals(service.status(first.getId()).getStatus(), OrderTicketStatus.CREATED);
+        Assertions.assertEquals(service.status(second.getId()).getStatus(), OrderTicketStatus.CREATED);
+        Assertions.assertThrows(ServiceUnavailableException.class, () -> {
+            service.submit(orderDTO);
+        });
+    }
+
+    @Test
+    public void stopShouldFailQueuedOrdersLeftAfterTimeout() {
+
+        service = new OrderIngestionService(orderService, userRepository, transactionTemplate, userUtil, 2, 1, 50, 60, 100, 0);
+        OrderTicketDTO ticket = service.submit(orderDTO);
+
+        service.stop();
+
+        Assertions.assertEquals(service.status(ticket.getId()).getStatus(), OrderTicketStatus.FAILED);
+        Mockito.verifyNoInteractions(orderService);
+    }
+
+    @Test
+    public void statusShouldThrowResourceNotFoundExceptionWhenTicketBelongsToOtherUser() {
+
+        OrderTicketDTO ticket = service.submit(orderDTO);
+        Mockito.when(userUtil.getLoggedUsername()).thenReturn("alex@gmail.com");
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            service.status(ticket.getId());
+        });
+    }
+}
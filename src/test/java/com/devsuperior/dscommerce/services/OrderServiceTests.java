@@ -2,34 +2,41 @@ package com.devsuperior.dscommerce.services;
 
 import static org.mockito.ArgumentMatchers.any;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.web.client.HttpClientErrorException.Forbidden;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
 import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderSummaryDTO;
 import com.devsuperior.dscommerce.entities.Order;
 import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.OrderStatus;
 import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.entities.User;
 import com.devsuperior.dscommerce.repositories.OrderItemRepository;
 import com.devsuperior.dscommerce.repositories.OrderRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dscommerce.tests.OrderFactory;
 import com.devsuperior.dscommerce.tests.ProductFactory;
 import com.devsuperior.dscommerce.tests.UserFactory;
-
-import jakarta.persistence.EntityNotFoundException;
+import com.devsuperior.dscommerce.util.CursorUtil;
 
 @ExtendWith(SpringExtension.class)
 public class OrderServiceTests {
@@ -71,11 +78,10 @@ public class OrderServiceTests {
         orderDTO = new OrderDTO(order);
         product = ProductFactory.createProduct();
 
-        Mockito.when(repository.findById(existingOrderId)).thenReturn(Optional.of(order));
-        Mockito.when(repository.findById(nonExistingOrderId)).thenReturn(Optional.empty());
+        Mockito.when(repository.searchByIdWithItems(existingOrderId)).thenReturn(Optional.of(order));
+        Mockito.when(repository.searchByIdWithItems(nonExistingOrderId)).thenReturn(Optional.empty());
 
-        Mockito.when(productRepository.getReferenceById(existingProductId)).thenReturn(product);
-        Mockito.when(productRepository.getReferenceById(nonExistingProductId)).thenThrow(EntityNotFoundException.class);
+        Mockito.when(productRepository.findAllById(any())).thenAnswer(x -> List.of(ProductFactory.createProduct()));
         Mockito.when(repository.save(any())).thenReturn(order);
         Mockito.when(orderItemRepository.saveAll(any())).thenReturn(new ArrayList<>(order.getItems()));
         
@@ -115,19 +121,71 @@ public class OrderServiceTests {
     }
 
     @Test
-    public void insertShouldThrowsEntityNotFoundExceptionWhenOrderProductIdDoesNotExists() {
+    public void insertShouldThrowsResourceNotFoundExceptionWhenOrderProductIdDoesNotExists() {
 
         Mockito.when(userService.authenticated()).thenReturn(client);
 
-        product.setId(nonExistingOrderId);
+        product.setId(nonExistingProductId);
         OrderItem orderItem = new OrderItem(order, product, 2, 10.0);
         order.getItems().add(orderItem);
 
         orderDTO = new OrderDTO(order);
 
-        Assertions.assertThrows(EntityNotFoundException.class, () -> {
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
             service.insert(orderDTO);
         });
+        Mockito.verify(repository, Mockito.never()).saveAll(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void insertShouldStoreOrderTotalInCents() {
+
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        ArgumentCaptor<List<Order>> captor = ArgumentCaptor.forClass(List.class);
+
+        OrderDTO result = service.insert(orderDTO);
+
+        Mockito.verify(repository).saveAll(captor.capture());
+        Assertions.assertEquals(captor.getValue().get(0).getTotalCents(), 800000L);
+        Assertions.assertEquals(result.getTotal(), 8000.0);
+    }
+
+    @Test
+    public void insertShouldLoadAllProductsWithOneQuery() {
+
+        Mockito.when(userService.authenticated()).thenReturn(client);
+
+        service.insert(orderDTO);
+
+        Mockito.verify(productRepository, Mockito.times(1)).findAllById(List.of(existingProductId));
+        Mockito.verify(productRepository, Mockito.never()).getReferenceById(any());
+    }
+
+    @Test
+    public void findMineShouldQueryAuthenticatedClientAndReturnNextCursorWhenMoreRows() {
+
+        Mockito.when(userService.authenticated()).thenReturn(client);
+        OrderSummaryDTO newer = new OrderSummaryDTO(3L, Instant.now(), OrderStatus.PAID, client.getId(), 9050L, 1L);
+        OrderSummaryDTO older = new OrderSummaryDTO(1L, Instant.now(), OrderStatus.PAID, client.getId(), 143100L, 2L);
+        Mockito.when(repository.searchSummaries(client.getId(), Long.MAX_VALUE, PageRequest.of(0, 2))).thenReturn(List.of(newer, older));
+
+        CursorPageDTO<OrderSummaryDTO> result = service.findMine(null, 1);
+
+        Assertions.assertEquals(result.getContent().size(), 1);
+        Assertions.assertEquals(result.getContent().get(0).getId(), 3L);
+        Assertions.assertEquals(CursorUtil.decode(result.getNext(), 1)[0], "3");
+    }
+
+    @Test
+    public void findSummariesShouldThrowBadRequestExceptionWhenSizeIsInvalid() {
+
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            service.findSummaries(null, null, 0);
+        });
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            service.findSummaries(null, null, Integer.MAX_VALUE);
+        });
     }
 
     @Test
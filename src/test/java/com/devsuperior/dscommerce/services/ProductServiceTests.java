@@ -17,14 +17,38 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
-
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscommerce.dto.BulkResultDTO;
+import com.devsuperior.dscommerce.dto.CategoryAssignmentDTO;
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.DeleteResultDTO;
+import com.devsuperior.dscommerce.dto.PriceAdjustmentDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.projections.ProductVersionProjection;
+import com.devsuperior.dscommerce.repositories.CategoryRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.cache.CatalogVersions;
+import com.devsuperior.dscommerce.services.cache.ProductCache;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import com.devsuperior.dscommerce.services.exceptions.DatabaseException;
+import com.devsuperior.dscommerce.services.exceptions.PreconditionFailedException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.services.index.IdBitmap;
+import com.devsuperior.dscommerce.services.index.ProductCategoryIndex;
+import com.devsuperior.dscommerce.services.index.ProductNameIndex;
+import com.devsuperior.dscommerce.services.index.ProductNameTrie;
+import com.devsuperior.dscommerce.services.index.ProductPriceIndex;
 import com.devsuperior.dscommerce.tests.ProductFactory;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -38,37 +62,67 @@ public class ProductServiceTests {
     @Mock
     private ProductRepository repository;
 
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductNameIndex nameIndex;
+
+    @Mock
+    private ProductCategoryIndex categoryIndex;
+
+    @Mock
+    private ProductPriceIndex priceIndex;
+
+    @Mock
+    private ProductNameTrie nameTrie;
+
+    @Mock
+    private ProductCache cache;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private CatalogVersions versions;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     private Product product;
     private ProductDTO productDTO;
+    private ProductMinDTO productMinDTO;
     private String productName;
-    private PageImpl<Product> page;
+    private PageImpl<ProductMinDTO> page;
     private Long existingId, nonExistingId, dependentId;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
         existingId = 1L;
         dependentId = 4L;
         nonExistingId = 100L;
         productName = "Play5";
         product = ProductFactory.createProduct();
-        page = new PageImpl<>(List.of(product));
+        productMinDTO = new ProductMinDTO(product);
+        page = new PageImpl<>(List.of(productMinDTO));
         productDTO = new ProductDTO(product);
 
-        Mockito.when(repository.findById(existingId)).thenReturn(Optional.of(product));
-        Mockito.when(repository.findById(nonExistingId)).thenReturn(Optional.empty());
+        Mockito.when(repository.searchByIdWithCategories(existingId)).thenReturn(Optional.of(product));
+        Mockito.when(repository.searchByIdWithCategories(nonExistingId)).thenReturn(Optional.empty());
+        Mockito.when(transactionTemplate.execute(any())).thenAnswer(x -> ((TransactionCallback<Object>) x.getArgument(0)).doInTransaction(null));
 
         Mockito.when(repository.searchByName(any(), (Pageable)any())).thenReturn(page);
 
         Mockito.when(repository.save(any())).thenReturn(product);
+        Mockito.when(repository.saveAndFlush(any())).thenReturn(product);
 
         Mockito.when(repository.getReferenceById(existingId)).thenReturn(product);
         Mockito.when(repository.getReferenceById(nonExistingId)).thenThrow(new EntityNotFoundException());
 
-        Mockito.when(repository.existsById(existingId)).thenReturn(true);
-        Mockito.when(repository.existsById(nonExistingId)).thenReturn(false);
-        Mockito.when(repository.existsById(dependentId)).thenReturn(true);
-        Mockito.doNothing().when(repository).deleteById(existingId);
-        Mockito.doThrow(DataIntegrityViolationException.class).when(repository).deleteById(dependentId);
+        Mockito.when(repository.bulkDelete(List.of(existingId))).thenReturn(1);
+        Mockito.when(repository.bulkDelete(List.of(nonExistingId))).thenReturn(0);
+        Mockito.when(repository.bulkDelete(List.of(dependentId))).thenThrow(DataIntegrityViolationException.class);
     }
     
     @Test
@@ -94,10 +148,25 @@ public class ProductServiceTests {
         });
     }
 
+    @Test
+    public void deleteAllShouldReportNotFoundAndReferencedIds() {
+
+        Mockito.when(repository.searchExistingIds(List.of(existingId, dependentId, nonExistingId))).thenReturn(List.of(existingId, dependentId));
+        Mockito.when(repository.searchReferencedIds(any())).thenReturn(List.of(dependentId));
+
+        DeleteResultDTO result = service.deleteAll(List.of(existingId, dependentId, nonExistingId, existingId));
+
+        Assertions.assertEquals(result.getDeleted(), 1);
+        Assertions.assertEquals(result.getNotFound(), List.of(nonExistingId));
+        Assertions.assertEquals(result.getIntegrityViolations(), List.of(dependentId));
+        Mockito.verify(repository).bulkDelete(List.of(existingId));
+        Mockito.verify(nameIndex).remove(existingId);
+    }
+
     @Test
     public void updateShouldReturnProductDTOWhenExistingId() {
         
-        ProductDTO result = service.update(existingId, productDTO);
+        ProductDTO result = service.update(existingId, productDTO, null);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(result.getId(), existingId);
@@ -108,10 +177,40 @@ public class ProductServiceTests {
     public void updateShouldResourceNotFoundExceptionWhenNonExistingId() {
 
         Assertions.assertThrows(ResourceNotFoundException.class, () -> {
-            service.update(nonExistingId, productDTO);
+            service.update(nonExistingId, productDTO, null);
+        });
+    }
+
+    @Test
+    public void updateShouldThrowPreconditionFailedExceptionWhenVersionDiffers() {
+
+        Assertions.assertThrows(PreconditionFailedException.class, () -> {
+            service.update(existingId, productDTO, 3);
+        });
+        Mockito.verify(repository, Mockito.never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void updateShouldThrowPreconditionFailedExceptionWhenConcurrentUpdateWins() {
+
+        Mockito.when(repository.saveAndFlush(any())).thenThrow(new ObjectOptimisticLockingFailureException(Product.class, existingId));
+
+        Assertions.assertThrows(PreconditionFailedException.class, () -> {
+            service.update(existingId, productDTO, null);
         });
     }
 
+    @Test
+    public void reassignCategoriesShouldIncrementVersions() {
+
+        Mockito.when(categoryRepository.countByIdIn(List.of(2L))).thenReturn(1L);
+        Mockito.when(repository.searchExistingIds(List.of(existingId))).thenReturn(List.of(existingId));
+
+        service.reassignCategories(new CategoryAssignmentDTO(List.of(existingId), List.of(2L)));
+
+        Mockito.verify(repository).incrementVersions(List.of(existingId));
+    }
+
     @Test
     public void findByIdShoudReturnProductDTOWhenExistingId() {
 
@@ -122,6 +221,60 @@ public class ProductServiceTests {
         Assertions.assertEquals(result.getName(), product.getName());
     }
 
+    @Test
+    public void findByIdShouldReturnCachedProductDTOWithoutQueryingRepository() {
+
+        Mockito.when(cache.get(existingId)).thenReturn(productDTO);
+
+        ProductDTO result = service.findById(existingId);
+
+        Assertions.assertSame(result, productDTO);
+        Mockito.verify(repository, Mockito.never()).searchByIdWithCategories(any());
+        Mockito.verify(transactionTemplate, Mockito.never()).execute(any());
+    }
+
+    @Test
+    public void findByIdShouldPopulateCacheWhenMiss() {
+
+        Mockito.when(cache.stamp(existingId)).thenReturn(3L);
+
+        service.findById(existingId);
+
+        Mockito.verify(cache).put(Mockito.eq(existingId), any(), Mockito.eq(3L));
+    }
+
+    @Test
+    public void updateShouldKeepUnchangedCategoryInstances() {
+
+        Category current = product.getCategories().iterator().next();
+        productDTO.getCategories().add(new CategoryDTO(2L, "Eletro"));
+
+        service.update(existingId, productDTO, null);
+
+        Assertions.assertEquals(product.getCategories().size(), 2);
+        Assertions.assertTrue(product.getCategories().stream().anyMatch(x -> x == current));
+    }
+
+    @Test
+    public void updateShouldRemoveCategoriesMissingFromDto() {
+
+        ProductDTO dto = new ProductDTO(existingId, productName, "videogame description", 4000.0, "url/img");
+        dto.getCategories().add(new CategoryDTO(2L, "Eletro"));
+
+        service.update(existingId, dto, null);
+
+        Assertions.assertEquals(product.getCategories().size(), 1);
+        Assertions.assertEquals(product.getCategories().iterator().next().getId(), 2L);
+    }
+
+    @Test
+    public void updateShouldEvictCachedProduct() {
+
+        service.update(existingId, productDTO, null);
+
+        Mockito.verify(cache).evict(existingId);
+    }
+
     @Test
     public void findByIdShoudResourceNotFoundExceptionWhenNonExistingId() {
 
@@ -130,17 +283,217 @@ public class ProductServiceTests {
         });
     }
 
+    @Test
+    public void indexAllShouldUpdateIndexesOnceForWholeChunk() {
+
+        service.indexAll(List.of(ProductFactory.createProduct("Console"), product));
+
+        Mockito.verify(priceIndex, Mockito.times(1)).putAll(any());
+        Mockito.verify(nameTrie, Mockito.times(1)).putAll(any());
+        Mockito.verify(versions, Mockito.times(1)).touchProducts(any());
+        Mockito.verify(categoryService, Mockito.times(1)).refreshCounts();
+    }
+
     @Test
     public void findAllShouldReturnProductMinDTO() {
 
         Pageable pageable = PageRequest.of(0, 12);
-        Page<ProductMinDTO> result = service.findAll(productName, pageable);
+        Page<ProductMinDTO> result = service.findAll(productName, List.of(), null, null, pageable);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(result.getSize(), 1);
         Assertions.assertEquals(result.iterator().next().getName(), productName);
     }
 
+    @Test
+    public void findAllShouldResolveIdsFromIndexWhenIndexIsReady() {
+
+        Pageable pageable = PageRequest.of(0, 12);
+        Mockito.when(nameIndex.isReady()).thenReturn(true);
+        Mockito.when(nameIndex.supports(any())).thenReturn(true);
+        Mockito.when(nameIndex.search(productName, pageable.getSort())).thenReturn(List.of(existingId));
+        Mockito.when(repository.searchByIds(List.of(existingId))).thenReturn(List.of(productMinDTO));
+
+        Page<ProductMinDTO> result = service.findAll(productName, List.of(), null, null, pageable);
+
+        Assertions.assertEquals(result.getTotalElements(), 1);
+        Assertions.assertEquals(result.iterator().next().getName(), productName);
+        Mockito.verify(repository, Mockito.never()).searchByName(any(), any());
+    }
+
+    @Test
+    public void findAllShouldIntersectNameMatchesWithCategoryBitmap() {
+
+        Pageable pageable = PageRequest.of(0, 12);
+        IdBitmap bitmap = new IdBitmap();
+        bitmap.add(existingId);
+        Mockito.when(nameIndex.isReady()).thenReturn(true);
+        Mockito.when(nameIndex.supports(any())).thenReturn(true);
+        Mockito.when(categoryIndex.isReady()).thenReturn(true);
+        Mockito.when(nameIndex.search(productName, pageable.getSort())).thenReturn(List.of(existingId, 2L));
+        Mockito.when(categoryIndex.intersect(List.of(1L))).thenReturn(bitmap);
+        Mockito.when(repository.searchByIds(List.of(existingId))).thenReturn(List.of(productMinDTO));
+
+        Page<ProductMinDTO> result = service.findAll(productName, List.of(1L, 1L), null, null, pageable);
+
+        Assertions.assertEquals(result.getTotalElements(), 1);
+        Assertions.assertEquals(result.iterator().next().getId(), existingId);
+    }
+
+    @Test
+    public void findAllShouldFilterCategoriesInDatabaseWhenIndexIsNotReady() {
+
+        Pageable pageable = PageRequest.of(0, 12);
+        Mockito.when(repository.searchByNameAndCategories(any(), any(), any(), any(), any(), any())).thenReturn(page);
+
+        Page<ProductMinDTO> result = service.findAll(productName, List.of(1L, 2L), null, null, pageable);
+
+        Assertions.assertEquals(result.getTotalElements(), 1);
+        Mockito.verify(repository).searchByNameAndCategories(productName, List.of(1L, 2L), 2L, -Double.MAX_VALUE, Double.MAX_VALUE, pageable);
+    }
+
+    @Test
+    public void findAllShouldServePriceSortFromPriceIndex() {
+
+        Pageable pageable = PageRequest.of(0, 12, Sort.by("price").descending());
+        Mockito.when(nameIndex.isReady()).thenReturn(true);
+        Mockito.when(priceIndex.isReady()).thenReturn(true);
+        Mockito.when(priceIndex.range(100.0, null, false)).thenReturn(List.of(existingId));
+        Mockito.when(repository.searchByIds(List.of(existingId))).thenReturn(List.of(productMinDTO));
+
+        Page<ProductMinDTO> result = service.findAll("", List.of(), 100.0, null, pageable);
+
+        Assertions.assertEquals(result.getTotalElements(), 1);
+        Mockito.verify(nameIndex, Mockito.never()).search(any(), any());
+    }
+
+    @Test
+    public void findAllShouldQueryDatabaseWhenNoFilterIsGiven() {
+
+        Pageable pageable = PageRequest.of(0, 12);
+        Mockito.when(nameIndex.isReady()).thenReturn(true);
+        Mockito.when(nameIndex.supports(any())).thenReturn(true);
+
+        Page<ProductMinDTO> result = service.findAll("", List.of(), null, null, pageable);
+
+        Assertions.assertEquals(result.getTotalElements(), 1);
+        Mockito.verify(repository).searchByName("", pageable);
+        Mockito.verify(nameIndex, Mockito.never()).search(any(), any());
+    }
+
+    @Test
+    public void findAllShouldStartFromCategoryBitmapWhenNameIsEmpty() {
+
+        Pageable pageable = PageRequest.of(0, 12);
+        IdBitmap bitmap = IdBitmap.of(List.of(existingId));
+        Mockito.when(nameIndex.isReady()).thenReturn(true);
+        Mockito.when(nameIndex.supports(any())).thenReturn(true);
+        Mockito.when(categoryIndex.isReady()).thenReturn(true);
+        Mockito.when(categoryIndex.intersect(List.of(1L))).thenReturn(bitmap);
+        Mockito.when(nameIndex.sorted(List.of(existingId), pageable.getSort())).thenReturn(List.of(existingId));
+        Mockito.when(repository.searchByIds(List.of(existingId))).thenReturn(List.of(productMinDTO));
+
+        Page<ProductMinDTO> result = service.findAll("", List.of(1L), null, null, pageable);
+
+        Assertions.assertEquals(result.getTotalElements(), 1);
+        Mockito.verify(nameIndex, Mockito.never()).search(any(), any());
+    }
+
+    @Test
+    public void findAllShouldFilterPriceInDatabaseWhenIndexIsNotReady() {
+
+        Pageable pageable = PageRequest.of(0, 12);
+        Mockito.when(repository.searchByNameAndPrice(any(), any(), any(), any())).thenReturn(page);
+
+        service.findAll(productName, null, null, 500.0, pageable);
+
+        Mockito.verify(repository).searchByNameAndPrice(productName, -Double.MAX_VALUE, 500.0, pageable);
+    }
+
+    @Test
+    public void findSliceShouldReturnSliceWithoutCountingWhenIndexIsNotReady() {
+
+        Pageable pageable = PageRequest.of(0, 12);
+        Mockito.when(repository.searchSliceByName(any(), any())).thenReturn(new SliceImpl<>(List.of(productMinDTO), pageable, false));
+
+        Slice<ProductMinDTO> result = service.findSlice(productName, pageable);
+
+        Assertions.assertEquals(result.getNumberOfElements(), 1);
+        Assertions.assertFalse(result.hasNext());
+        Mockito.verify(repository, Mockito.never()).searchByName(any(), any());
+    }
+
+    @Test
+    public void findSliceShouldReportNextWhenIndexHasMoreIds() {
+
+        Pageable pageable = PageRequest.of(0, 1);
+        Mockito.when(nameIndex.isReady()).thenReturn(true);
+        Mockito.when(nameIndex.supports(any())).thenReturn(true);
+        Mockito.when(nameIndex.search(productName, pageable.getSort())).thenReturn(List.of(existingId, 2L));
+        Mockito.when(repository.searchByIds(List.of(existingId))).thenReturn(List.of(productMinDTO));
+
+        Slice<ProductMinDTO> result = service.findSlice(productName, pageable);
+
+        Assertions.assertEquals(result.getNumberOfElements(), 1);
+        Assertions.assertTrue(result.hasNext());
+    }
+
+    @Test
+    public void suggestShouldThrowBadRequestExceptionWhenLimitIsOutOfRange() {
+
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            service.suggest("pla", 0);
+        });
+        Mockito.verify(nameTrie, Mockito.never()).suggest(any(), Mockito.anyInt());
+    }
+
+    @Test
+    public void findAllAfterShouldThrowBadRequestExceptionWhenSizeIsOutOfRange() {
+
+        Assertions.assertThrows(BadRequestException.class, () -> service.findAllAfter("", "id", null, 0));
+        Assertions.assertThrows(BadRequestException.class, () -> service.findAllAfter("", "id", null, Integer.MAX_VALUE));
+        Mockito.verify(repository, Mockito.never()).searchByNameAfterId(any(), any(), any());
+    }
+
+    @Test
+    public void findAllAfterShouldReturnNextCursorWhenMoreResultsExist() {
+
+        Product other = ProductFactory.createProduct("Play4");
+        other.setId(2L);
+        Mockito.when(repository.searchByNameAfterId(any(), any(), any())).thenReturn(List.of(productMinDTO, new ProductMinDTO(other)));
+
+        CursorPageDTO<ProductMinDTO> result = service.findAllAfter("", "id", null, 1);
+
+        Assertions.assertEquals(result.getContent().size(), 1);
+        Assertions.assertTrue(result.isHasNext());
+    }
+
+    @Test
+    public void findAllAfterShouldSeekFromCursorPosition() {
+
+        Mockito.when(repository.searchByNameAfterName(any(), any(), any(), any())).thenReturn(List.of(productMinDTO));
+
+        CursorPageDTO<ProductMinDTO> first = service.findAllAfter("", "name", null, 1);
+        Assertions.assertFalse(first.isHasNext());
+
+        Mockito.when(repository.searchByNameAfterName(any(), any(), any(), any())).thenReturn(List.of(productMinDTO, productMinDTO));
+        String next = service.findAllAfter("", "name", null, 1).getNext();
+        service.findAllAfter("", "name", next, 1);
+
+        Mockito.verify(repository).searchByNameAfterName(Mockito.eq(""), Mockito.eq(productName), Mockito.eq(existingId), any());
+    }
+
+    @Test
+    public void findAllAfterShouldThrowBadRequestExceptionWhenCursorIsInvalid() {
+
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            service.findAllAfter("", "id", "cursor-invalido", 10);
+        });
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            service.findAllAfter("", "price", null, 10);
+        });
+    }
+
     @Test
     public void insertShouldReturnProductDTO() {
 
@@ -149,4 +502,33 @@ public class ProductServiceTests {
         Assertions.assertNotNull(result);
         Assertions.assertEquals(result.getId(), product.getId());
     }
+
+    @Test
+    public void adjustPriceShouldThrowResourceNotFoundExceptionWhenCategoryDoesNotExist() {
+
+        Mockito.when(categoryRepository.existsById(nonExistingId)).thenReturn(false);
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            service.adjustPrice(new PriceAdjustmentDTO(nonExistingId, 10.0));
+        });
+        Mockito.verify(repository, Mockito.never()).updatePriceByCategory(any(), any());
+    }
+
+    @Test
+    public void reassignCategoriesShouldRewriteOnlyExistingProducts() {
+
+        Mockito.when(categoryRepository.countByIdIn(List.of(2L))).thenReturn(1L);
+        Mockito.when(repository.searchExistingIds(List.of(existingId, nonExistingId))).thenReturn(List.of(existingId));
+        Mockito.when(repository.searchVersions(List.of(existingId))).thenReturn(List.of(new ProductVersionProjection() {
+            public Long getId() { return existingId; }
+            public Integer getVersion() { return 1; }
+        }));
+
+        BulkResultDTO result = service.reassignCategories(new CategoryAssignmentDTO(List.of(existingId, nonExistingId), List.of(2L, 2L)));
+
+        Assertions.assertEquals(result.getAffected(), 1);
+        Mockito.verify(repository).deleteCategoriesByProductIds(List.of(existingId));
+        Mockito.verify(repository).insertCategoriesByProductIds(List.of(existingId), List.of(2L));
+        Mockito.verify(categoryIndex).put(existingId, 1, List.of(2L));
+    }
 }
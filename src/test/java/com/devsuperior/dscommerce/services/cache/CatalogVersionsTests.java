@@ -0,0 +1,71 @@
+package com.devsuperior.dscommerce.services.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CatalogVersionsTests {
+
+    private CatalogVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        versions = new CatalogVersions(60);
+    }
+
+    @Test
+    public void productShouldUseEntityVersionInEtag() {
+
+        VersionStamp before = versions.product(1L, 0);
+        Assertions.assertEquals("\"p1-v0\"", before.getEtag());
+
+        versions.touchProduct(1L, 1);
+        VersionStamp after = versions.product(1L, 1);
+
+        Assertions.assertEquals("\"p1-v1\"", after.getEtag());
+        Assertions.assertTrue(after.getLastModified() >= before.getLastModified());
+    }
+
+    @Test
+    public void productShouldKeepNewestVersionAndForgetRemovedProducts() {
+
+        Assertions.assertNull(versions.product(1L));
+
+        versions.observeProduct(1L, 3);
+        versions.touchProduct(1L, 2);
+        Assertions.assertEquals("\"p1-v3\"", versions.product(1L).getEtag());
+
+        versions.removeProduct(1L);
+        versions.observeProduct(1L, 4);
+        Assertions.assertNull(versions.product(1L));
+    }
+
+    @Test
+    public void removeProductShouldStopBlockingWritesAfterTombstoneExpires() {
+
+        versions = new CatalogVersions(0);
+        versions.observeProduct(1L, 3);
+        versions.removeProduct(1L);
+        Assertions.assertNull(versions.product(1L));
+
+        versions.observeProduct(1L, 4);
+        Assertions.assertEquals("\"p1-v4\"", versions.product(1L).getEtag());
+    }
+
+    @Test
+    public void parseProductEtagShouldReturnVersionOnlyForSameProduct() {
+
+        Assertions.assertEquals(7, CatalogVersions.parseProductEtag(1L, CatalogVersions.productEtag(1L, 7)));
+        Assertions.assertNull(CatalogVersions.parseProductEtag(2L, CatalogVersions.productEtag(1L, 7)));
+        Assertions.assertNull(CatalogVersions.parseProductEtag(1L, "\"p1-vx\""));
+    }
+
+    @Test
+    public void categoriesShouldChangeEtagWhenTouched() {
+
+        String before = versions.categories().getEtag();
+        versions.touchCategories();
+
+        Assertions.assertNotEquals(before, versions.categories().getEtag());
+    }
+}
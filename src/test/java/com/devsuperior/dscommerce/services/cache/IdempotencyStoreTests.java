@@ -0,0 +1,70 @@
+package com.devsuperior.dscommerce.services.cache;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.util.CustomUserUtil;
+
+public class IdempotencyStoreTests {
+
+    private IdempotencyStore store;
+    private CustomUserUtil userUtil;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        userUtil = Mockito.mock(CustomUserUtil.class);
+        Mockito.when(userUtil.getLoggedUsername()).thenReturn("maria@gmail.com");
+        store = new IdempotencyStore(userUtil, 100, 60);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    public void executeShouldRunActionOnceAndReplayResultForSameKey() {
+
+        Integer first = store.execute("k1", List.of("1x2"), () -> calls.incrementAndGet());
+        Integer second = store.execute("k1", List.of("1x2"), () -> calls.incrementAndGet());
+
+        Assertions.assertEquals(1, first);
+        Assertions.assertEquals(1, second);
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void executeShouldScopeKeysByUser() {
+
+        store.execute("k1", List.of("1x2"), () -> calls.incrementAndGet());
+        Mockito.when(userUtil.getLoggedUsername()).thenReturn("alex@gmail.com");
+        Integer result = store.execute("k1", List.of("1x2"), () -> calls.incrementAndGet());
+
+        Assertions.assertEquals(2, result);
+    }
+
+    @Test
+    public void executeShouldThrowBadRequestExceptionWhenKeyReusedWithOtherRequest() {
+
+        store.execute("k1", List.of("1x2"), () -> calls.incrementAndGet());
+
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            store.execute("k1", List.of("1x3"), () -> calls.incrementAndGet());
+        });
+    }
+
+    @Test
+    public void executeShouldReleaseKeyWhenActionFails() {
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            store.execute("k1", List.of("1x2"), () -> { throw new ResourceNotFoundException("Produto não encontrado"); });
+        });
+        Integer result = store.execute("k1", List.of("1x2"), () -> calls.incrementAndGet());
+
+        Assertions.assertEquals(1, result);
+    }
+}
@@ -0,0 +1,43 @@
+package com.devsuperior.dscommerce.services.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.tests.ProductFactory;
+
+public class ProductCacheTests {
+
+    private ProductCache cache;
+    private ProductDTO dto;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductCache(100, 600, 60);
+        dto = new ProductDTO(ProductFactory.createProduct());
+    }
+
+    @Test
+    public void putShouldStoreDtoWhenNoEvictionHappenedSinceStamp() {
+
+        long stamp = cache.stamp(1L);
+        cache.put(1L, dto, stamp);
+
+        Assertions.assertSame(dto, cache.get(1L));
+    }
+
+    @Test
+    public void putShouldDiscardDtoLoadedBeforeConcurrentEviction() {
+
+        // Leitor lê o carimbo e carrega a linha antiga; a escrita confirma e invalida antes do put
+        long stamp = cache.stamp(1L);
+        cache.evict(1L);
+        cache.put(1L, dto, stamp);
+
+        Assertions.assertNull(cache.get(1L));
+
+        cache.put(1L, dto, cache.stamp(1L));
+        Assertions.assertSame(dto, cache.get(1L));
+    }
+}
@@ -0,0 +1,75 @@
+package com.devsuperior.dscommerce.services.index;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class IdBitmapTests {
+
+    @Test
+    public void andShouldReturnIdsPresentInBothBitmaps() {
+
+        IdBitmap a = new IdBitmap();
+        IdBitmap b = new IdBitmap();
+        a.add(1L);
+        a.add(5L);
+        a.add(70000L);
+        b.add(5L);
+        b.add(70000L);
+        b.add(9L);
+
+        Assertions.assertEquals(List.of(5L, 70000L), a.and(b).toList());
+    }
+
+    @Test
+    public void bitmapShouldKeepIdsWhenContainerGrowsBeyondArrayLimit() {
+
+        IdBitmap dense = new IdBitmap();
+        IdBitmap even = new IdBitmap();
+        for (long id = 0; id < 10000; id++) {
+            dense.add(id);
+            if (id % 2 == 0) {
+                even.add(id);
+            }
+        }
+        dense.remove(4L);
+
+        Assertions.assertEquals(9999, dense.cardinality());
+        Assertions.assertFalse(dense.contains(4L));
+        Assertions.assertTrue(dense.contains(9999L));
+        IdBitmap result = dense.and(even);
+        Assertions.assertEquals(4999, result.cardinality());
+        Assertions.assertEquals(List.of(0L, 2L, 6L), result.toList().subList(0, 3));
+    }
+
+    @Test
+    public void removeShouldShrinkBackAndKeepRemainingIds() {
+
+        IdBitmap bitmap = new IdBitmap();
+        for (long id = 0; id < 5000; id++) {
+            bitmap.add(id);
+        }
+        for (long id = 0; id < 4000; id++) {
+            bitmap.remove(id);
+        }
+
+        Assertions.assertEquals(1000, bitmap.cardinality());
+        Assertions.assertEquals(4000L, bitmap.toList().get(0));
+    }
+
+    @Test
+    public void bitmapShouldAcceptIdsBeyondIntegerRange() {
+
+        long big = Integer.MAX_VALUE + 10L;
+        IdBitmap a = IdBitmap.of(List.of(3L, big, 1L << 40));
+        IdBitmap b = IdBitmap.of(List.of(big, 1L << 40, 5L));
+
+        Assertions.assertTrue(a.contains(big));
+        Assertions.assertFalse(a.contains(big + 1));
+        Assertions.assertEquals(List.of(big, 1L << 40), a.and(b).toList());
+
+        a.remove(big);
+        Assertions.assertEquals(List.of(3L, 1L << 40), a.toList());
+    }
+}
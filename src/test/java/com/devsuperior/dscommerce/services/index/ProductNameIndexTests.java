@@ -0,0 +1,79 @@
+package com.devsuperior.dscommerce.services.index;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+public class ProductNameIndexTests {
+
+    private ProductNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductNameIndex();
+        index.put(1L, 0, "The Lord of the Rings");
+        index.put(2L, 0, "Macbook Pro");
+        index.put(3L, 0, "PC Gamer");
+    }
+
+    @Test
+    public void searchShouldMatchSubstringIgnoringCase() {
+
+        Assertions.assertEquals(List.of(2L), index.search("book p", Sort.unsorted()));
+        Assertions.assertEquals(List.of(1L, 3L), index.search("e", Sort.unsorted()));
+    }
+
+    @Test
+    public void searchShouldReturnEmptyWhenTermDoesNotMatch() {
+
+        Assertions.assertTrue(index.search("xbox", Sort.unsorted()).isEmpty());
+    }
+
+    @Test
+    public void searchShouldReflectUpdatesAndRemovals() {
+
+        index.put(2L, 1, "Macbook Air");
+        index.remove(3L);
+
+        Assertions.assertTrue(index.search("pro", Sort.unsorted()).isEmpty());
+        Assertions.assertEquals(List.of(2L), index.search("AIR", Sort.unsorted()));
+        Assertions.assertTrue(index.search("gamer", Sort.unsorted()).isEmpty());
+    }
+
+    @Test
+    public void searchShouldSortByNameWhenRequested() {
+
+        Assertions.assertEquals(List.of(1L, 3L, 2L), index.search("", Sort.by("name").descending()));
+    }
+
+    @Test
+    public void searchShouldReturnAllIdsInOrderWhenTermIsEmpty() {
+
+        index.put(0L, 0, "Xbox");
+
+        Assertions.assertEquals(List.of(0L, 1L, 2L, 3L), index.search("", Sort.unsorted()));
+        Assertions.assertEquals(List.of(0L, 1L, 2L), index.search("o", Sort.unsorted()));
+    }
+
+    @Test
+    public void sortedShouldOrderGivenIdsByName() {
+
+        Assertions.assertEquals(List.of(3L, 1L), index.sorted(List.of(1L, 3L), Sort.by("name")));
+    }
+
+    @Test
+    public void putShouldIgnoreWriteOlderThanAppliedVersionOrRemoval() {
+
+        index.put(2L, 2, "Macbook Air");
+        index.put(2L, 1, "Macbook Pro Max");
+        index.remove(3L);
+        index.put(3L, 1, "PC Gamer Ultra");
+
+        Assertions.assertEquals(List.of(2L), index.search("air", Sort.unsorted()));
+        Assertions.assertTrue(index.search("max", Sort.unsorted()).isEmpty());
+        Assertions.assertTrue(index.search("gamer", Sort.unsorted()).isEmpty());
+    }
+}
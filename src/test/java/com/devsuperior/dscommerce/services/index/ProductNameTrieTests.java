@@ -0,0 +1,63 @@
+package com.devsuperior.dscommerce.services.index;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProductNameTrieTests {
+
+    private ProductNameTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new ProductNameTrie();
+        trie.put(1L, 0, "PC Gamer Ex");
+        trie.put(2L, 0, "PC Gamer X");
+        trie.put(3L, 0, "Macbook Pro");
+    }
+
+    @Test
+    public void suggestShouldMatchPrefixOfAnyWordIgnoringCase() {
+
+        Assertions.assertEquals(2, trie.suggest("gam", 10).size());
+        Assertions.assertEquals(3L, trie.suggest("pro", 10).get(0).getId());
+        Assertions.assertEquals("Macbook Pro", trie.suggest("MAC", 10).get(0).getName());
+        Assertions.assertTrue(trie.suggest("book", 10).isEmpty());
+    }
+
+    @Test
+    public void suggestShouldRespectLimit() {
+
+        Assertions.assertEquals(1, trie.suggest("pc", 1).size());
+    }
+
+    @Test
+    public void suggestShouldReflectRenamesAndRemovals() {
+
+        trie.put(3L, 1, "Macbook Air");
+        trie.remove(1L);
+
+        Assertions.assertTrue(trie.suggest("pro", 10).isEmpty());
+        Assertions.assertEquals(1, trie.suggest("air", 10).size());
+        Assertions.assertEquals(2L, trie.suggest("pc gamer", 10).get(0).getId());
+        Assertions.assertEquals(1, trie.suggest("pc gamer", 10).size());
+    }
+
+    @Test
+    public void suggestShouldReturnSmallestIdsAfterSplitsAndRemovals() {
+
+        for (long id = 10; id < 80; id++) {
+            trie.put(id, 0, "Gamer Chair " + id);
+        }
+        trie.put(4L, 0, "Gamepad");
+        trie.remove(1L);
+        trie.remove(4L);
+
+        Assertions.assertEquals(50, trie.suggest("gam", 50).size());
+        Assertions.assertEquals(2L, trie.suggest("gam", 50).get(0).getId());
+        Assertions.assertEquals(10L, trie.suggest("gam", 50).get(1).getId());
+        Assertions.assertEquals(58L, trie.suggest("gam", 50).get(49).getId());
+        Assertions.assertTrue(trie.suggest("gamep", 10).isEmpty());
+        Assertions.assertEquals(10, trie.suggest("chair 7", 50).size());
+    }
+}
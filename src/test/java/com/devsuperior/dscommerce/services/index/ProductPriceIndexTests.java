@@ -0,0 +1,60 @@
+package com.devsuperior.dscommerce.services.index;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProductPriceIndexTests {
+
+    private ProductPriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductPriceIndex();
+        index.put(1L, 0, 90.5);
+        index.put(2L, 0, 2190.0);
+        index.put(3L, 0, 1250.0);
+        index.put(4L, 0, 1250.0);
+    }
+
+    @Test
+    public void rangeShouldReturnIdsOrderedByPriceWithinBounds() {
+
+        Assertions.assertEquals(List.of(3L, 4L, 2L), index.range(1250.0, null, true));
+        Assertions.assertEquals(List.of(4L, 3L, 1L), index.range(null, 1250.0, false));
+        Assertions.assertTrue(index.range(3000.0, 4000.0, true).isEmpty());
+    }
+
+    @Test
+    public void putShouldMoveProductWhenPriceChanges() {
+
+        index.put(1L, 1, 5000.0);
+        index.remove(2L);
+
+        Assertions.assertEquals(List.of(3L, 4L, 1L), index.range(null, null, true));
+    }
+
+    @Test
+    public void putShouldIgnoreWriteOlderThanAppliedVersion() {
+
+        index.put(1L, 2, 5000.0);
+        index.put(1L, 1, 10.0);
+
+        Assertions.assertEquals(List.of(3L, 4L, 2L, 1L), index.range(1000.0, null, true));
+    }
+
+    @Test
+    public void putAllShouldMergeNewAndChangedPricesInOnePass() {
+
+        index.putAll(List.of(
+                new ProductIndexEntry(5L, 0, "Mouse", 50.0, List.of()),
+                new ProductIndexEntry(2L, 1, "Smart TV", 10.0, List.of()),
+                new ProductIndexEntry(3L, 0, "Macbook Pro", 1.0, List.of()),
+                new ProductIndexEntry(6L, 0, "Monitor", 1250.0, List.of())));
+
+        Assertions.assertEquals(List.of(3L, 2L, 5L, 1L, 4L, 6L), index.range(null, null, true));
+        Assertions.assertEquals(List.of(4L, 6L), index.range(1000.0, null, true));
+    }
+}